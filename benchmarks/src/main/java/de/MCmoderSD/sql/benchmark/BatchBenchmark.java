@@ -0,0 +1,64 @@
+package de.MCmoderSD.sql.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Insert throughput in rows per second
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchBenchmark extends BenchmarkDatabase {
+
+    // Constants
+    private static final String INSERT = "INSERT INTO item (name, amount) VALUES (?, ?)";
+    private static final int ROWS = 1000;
+
+    // Attributes
+    private List<Object[]> rows;
+
+    @Override
+    protected void prepare() {
+        rows = new ArrayList<>(ROWS);
+        for (var i = 0; i < ROWS; i++) rows.add(new Object[] {"item-" + i, i * 0.5});
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        database.update("DELETE FROM item");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int[] batch() throws SQLException {
+        return database.batch(INSERT, rows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchWriter() throws SQLException {
+        try (var writer = database.batchWriter(INSERT, ROWS, Long.MAX_VALUE, 0)) {
+            for (var row : rows) writer.add(row);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleInserts() throws SQLException {
+        for (var row : rows) database.update(INSERT, row);
+    }
+}
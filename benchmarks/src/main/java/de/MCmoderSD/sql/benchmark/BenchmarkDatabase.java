@@ -0,0 +1,67 @@
+package de.MCmoderSD.sql.benchmark;
+
+import de.MCmoderSD.sql.Driver;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static de.MCmoderSD.sql.Driver.DatabaseType.SQLITE;
+
+// Shared SQLite database for all benchmarks, either in memory or backed by a temporary file
+@State(Scope.Benchmark)
+public abstract class BenchmarkDatabase {
+
+    // Parameters
+    @Param({"memory", "file"})
+    public String storage;
+
+    // Attributes
+    protected Database database;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+
+        // Resolve Storage
+        if (storage.equals("file")) {
+            file = Files.createTempFile("jsql-benchmark", ".db");
+            database = new Database(configure(Driver.builder().withType(SQLITE).withDatabase(file.toString())));
+        } else database = new Database(configure(Driver.builder().withType(SQLITE).withDatabase(":memory:")));
+
+        // Connect and create the schema
+        if (!database.connect()) throw new IllegalStateException("Could not connect to " + storage + " database");
+        database.update("CREATE TABLE IF NOT EXISTS item (id INTEGER PRIMARY KEY, name TEXT NOT NULL, amount REAL NOT NULL)");
+        prepare();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        database.disconnect();
+        if (file != null) Files.deleteIfExists(file);
+    }
+
+    // Adjust the builder before the driver is created
+    protected Driver.Builder configure(Driver.Builder builder) {
+        return builder;
+    }
+
+    // Fill the database before the first iteration
+    protected void prepare() throws SQLException {
+    }
+
+    // Concrete Driver
+    protected static final class Database extends Driver {
+
+        // Constructor
+        public Database(Builder builder) {
+            super(builder);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.MCmoderSD.sql.benchmark;
+
+import de.MCmoderSD.sql.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Row mapping throughput in rows per second, materialized and streamed
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MappingBenchmark extends BenchmarkDatabase {
+
+    // Constants
+    private static final String SELECT = "SELECT id, name, amount FROM item";
+    private static final RowMapper<Item> MAPPER = resultSet -> new Item(resultSet.getLong(1), resultSet.getString(2), resultSet.getDouble(3));
+    private static final int ROWS = 10000;
+
+    @Override
+    protected void prepare() throws SQLException {
+        database.update("DELETE FROM item");
+        var rows = new ArrayList<Object[]>(ROWS);
+        for (var i = 0; i < ROWS; i++) rows.add(new Object[] {"item-" + i, i * 0.5});
+        database.batch("INSERT INTO item (name, amount) VALUES (?, ?)", rows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Item> query() throws SQLException {
+        return database.query(SELECT, MAPPER);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double stream() throws SQLException {
+        try (var items = database.stream(SELECT, MAPPER)) {
+            return items.mapToDouble(Item::amount).sum();
+        }
+    }
+
+    // Mapped Row
+    public record Item(long id, String name, double amount) {
+    }
+}
@@ -0,0 +1,50 @@
+package de.MCmoderSD.sql.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Point lookup with a freshly prepared statement versus the statement cache
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StatementBenchmark extends BenchmarkDatabase {
+
+    // Constants
+    private static final String QUERY = "SELECT name FROM item WHERE id = ?";
+
+    @Override
+    protected void prepare() throws SQLException {
+        database.update("INSERT OR REPLACE INTO item (id, name, amount) VALUES (1, 'item', 1.0)");
+    }
+
+    @Benchmark
+    public String prepareUncached() throws SQLException {
+        try (var lease = database.acquire(); var statement = lease.connection().prepareStatement(QUERY)) {
+            statement.setInt(1, 1);
+            try (var resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    @Benchmark
+    public String prepareCached() throws SQLException {
+        try (var lease = database.acquire()) {
+            var statement = lease.prepare(QUERY);
+            statement.setInt(1, 1);
+            try (var resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package de.MCmoderSD.sql.benchmark;
+
+import de.MCmoderSD.sql.Driver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Health check with validation on every call, the baseline for the cached state
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark extends BenchmarkDatabase {
+
+    @Override
+    protected Driver.Builder configure(Driver.Builder builder) {
+        return builder.withValidationInterval(0);
+    }
+
+    @Benchmark
+    public boolean isConnectedUncached() {
+        return database.isConnected();
+    }
+}
@@ -0,0 +1,28 @@
+package de.MCmoderSD.sql;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Exponential backoff with decorrelated jitter, not thread-safe
+final class Backoff {
+
+    // Constants
+    private final long base;    // ms
+    private final long cap;     // ms
+
+    // Variables
+    private long delay;
+
+    // Constructor
+    Backoff(long base, long cap) {
+        this.base = Math.max(1, base);
+        this.cap = Math.max(this.base, cap);
+        this.delay = this.base;
+    }
+
+    // Next delay, random between the base and three times the previous delay
+    long next() {
+        var upper = Math.min(cap, delay > cap / 3 ? cap : delay * 3);
+        delay = upper <= base ? base : ThreadLocalRandom.current().nextLong(base, upper + 1);
+        return delay;
+    }
+}
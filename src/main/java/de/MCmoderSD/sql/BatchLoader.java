@@ -0,0 +1,179 @@
+package de.MCmoderSD.sql;
+
+import java.lang.reflect.Array;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static de.MCmoderSD.sql.Driver.DatabaseType.POSTGRESQL;
+
+// Collects single-key lookups and loads them with one IN query per batch, or = ANY(?) on PostgreSQL
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class BatchLoader<K, V> {
+
+    // Constants
+    private final Driver driver;
+    private final Driver.DatabaseType databaseType;
+    private final String table;
+    private final String keyColumn;
+    private final RowMapper<Row<V>> mapper;   // One instance, so identical batches of this loader coalesce
+    private final int maxBatch;
+    private final long window;  // ms
+
+    // Attributes
+    private final ReentrantLock lock;   // Guards the pending batch
+
+    // Variables
+    private LinkedHashMap<Object, Request<K, V>> pending;
+    private ScheduledFuture<?> tick;
+
+    // Constructor
+    BatchLoader(Driver driver, Driver.DatabaseType databaseType, String table, String keyColumn, RowMapper<V> mapper, int maxBatch, long window) {
+
+        // Check Parameters
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (keyColumn == null || keyColumn.isBlank()) throw new IllegalArgumentException("Key column cannot be null or blank");
+        if (mapper == null) throw new IllegalArgumentException("Mapper cannot be null");
+        if (maxBatch < 1) throw new IllegalArgumentException("Max batch size must be positive");
+        if (window < 0) throw new IllegalArgumentException("Window cannot be negative");
+
+        // Set Constants
+        this.driver = driver;
+        this.databaseType = databaseType;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.mapper = resultSet -> new Row<>(normalize(resultSet.getObject(keyColumn)), mapper.map(resultSet));
+        this.maxBatch = databaseType == POSTGRESQL ? maxBatch : Math.min(maxBatch, databaseType.getMaxParameters());
+        this.window = window;
+
+        // Set Attributes
+        lock = new ReentrantLock();
+        pending = new LinkedHashMap<>();
+    }
+
+    // Queue a lookup, the future completes with the first matching row or null once the batch ran
+    public CompletableFuture<V> load(K key) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        var future = new CompletableFuture<V>();
+        LinkedHashMap<Object, Request<K, V>> batch = null;
+        lock.lock();
+        try {
+            pending.computeIfAbsent(normalize(key), ignored -> new Request<>(key, new ArrayList<>())).futures.add(future);
+            if (pending.size() >= maxBatch) batch = take();
+            else if (pending.size() == 1 && tick == null) tick = Scheduler.schedule(() -> execute(takeLocked()), window);
+        } finally {
+            lock.unlock();
+        }
+        if (batch != null) {
+            var full = batch;
+            Scheduler.execute(() -> execute(full));
+        }
+        return future;
+    }
+
+    public CompletableFuture<List<V>> loadAll(List<K> keys) {
+        var futures = new ArrayList<CompletableFuture<V>>(keys.size());
+        for (var key : keys) futures.add(load(key));
+        dispatch();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            var values = new ArrayList<V>(futures.size());
+            for (var future : futures) values.add(future.join());
+            return values;
+        });
+    }
+
+    // Run the pending batch now instead of waiting for the window, e.g. once a task queued all its lookups
+    public void dispatch() {
+        var batch = takeLocked();
+        if (!batch.isEmpty()) Scheduler.execute(() -> execute(batch));
+    }
+
+    private LinkedHashMap<Object, Request<K, V>> takeLocked() {
+        lock.lock();
+        try {
+            return take();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LinkedHashMap<Object, Request<K, V>> take() {
+        var batch = pending;
+        pending = new LinkedHashMap<>();
+        if (tick != null) tick.cancel(false);
+        tick = null;
+        return batch;
+    }
+
+    // Load one batch and complete every caller's future
+    private void execute(LinkedHashMap<Object, Request<K, V>> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            var rows = driver.query(buildQuery(batch.size()), mapper, parameters(batch));
+            for (var row : rows) {
+                var request = batch.get(row.key);
+                if (request != null) for (var future : request.futures) future.complete(row.value);
+            }
+            for (var request : batch.values()) for (var future : request.futures) future.complete(null);
+        } catch (SQLException | RuntimeException e) {
+            for (var request : batch.values()) for (var future : request.futures) future.completeExceptionally(e);
+        }
+    }
+
+    // IN lists are padded to a power of two so only a few statement shapes reach the statement cache
+    private String buildQuery(int keys) {
+        var sql = new StringBuilder("SELECT * FROM ").append(databaseType.quote(table)).append(" WHERE ").append(databaseType.quote(keyColumn));
+        if (databaseType == POSTGRESQL) return sql.append(" = ANY(?)").toString();
+        sql.append(" IN (");
+        for (var i = 0; i < slots(keys); i++) sql.append(i == 0 ? "?" : ", ?");
+        return sql.append(')').toString();
+    }
+
+    private Object[] parameters(LinkedHashMap<Object, Request<K, V>> batch) {
+
+        // PostgreSQL binds a single typed array, integral keys as int8[]
+        if (databaseType == POSTGRESQL) {
+            var keys = new ArrayList<>(batch.keySet());
+            var array = (Object[]) Array.newInstance(keys.getFirst().getClass(), keys.size());
+            for (var i = 0; i < array.length; i++) array[i] = keys.get(i);
+            return new Object[] {array};
+        }
+
+        var keys = new ArrayList<K>(batch.size());
+        for (var request : batch.values()) keys.add(request.key);
+
+        // Repeat the last key to fill the padded slots
+        var parameters = new Object[slots(keys.size())];
+        for (var i = 0; i < parameters.length; i++) parameters[i] = keys.get(Math.min(i, keys.size() - 1));
+        return parameters;
+    }
+
+    private int slots(int keys) {
+        return Math.min(keys == 1 ? 1 : Integer.highestOneBit(keys - 1) << 1, maxBatch);
+    }
+
+    // Integral keys compare by value, the JDBC driver may return another width than the caller used
+    private static Object normalize(Object key) {
+        return switch (key) {
+            case Long value -> value;
+            case Integer value -> value.longValue();
+            case Short value -> value.longValue();
+            case Byte value -> value.longValue();
+            case BigInteger value when value.bitLength() < 64 -> value.longValue();
+            case null, default -> key;
+        };
+    }
+
+    // Queued Lookup
+    private record Request<K, V>(K key, List<CompletableFuture<V>> futures) {
+    }
+
+    // Loaded Row
+    private record Row<V>(Object key, V value) {
+    }
+}
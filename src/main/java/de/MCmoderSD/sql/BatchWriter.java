@@ -0,0 +1,184 @@
+package de.MCmoderSD.sql;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Buffers rows for a single statement and flushes them as one transaction per batch
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class BatchWriter implements Buffered {
+
+    // Constants
+    private static final int MAX_BATCHES = 4;   // Batches buffered while flushes fail before add() rejects rows
+    private final Driver driver;
+    private final String sql;
+    private final int maxRows;
+    private final long maxBytes;
+
+    // Attributes
+    private final ReentrantLock bufferLock;     // Guards the buffer
+    private final ReentrantLock flushLock;      // Keeps flushes in order
+    private final ScheduledFuture<?> timer;
+    private final LongAdder rows;
+    private final LongAdder bytes;
+    private final LongAdder flushes;
+    private final LongAdder failures;
+    private final LongAdder dropped;
+    private final LongAdder flushNanos;
+
+    // Variables
+    private ArrayList<Object[]> buffer;
+    private long bufferedBytes;
+    private volatile boolean closed;
+
+    // Constructor
+    BatchWriter(Driver driver, String sql, int maxRows, long maxBytes, long flushInterval) {
+
+        // Check Parameters
+        if (sql == null || sql.isBlank()) throw new IllegalArgumentException("SQL cannot be null or blank");
+        if (maxRows < 1) throw new IllegalArgumentException("Max rows must be positive");
+        if (maxBytes < 1) throw new IllegalArgumentException("Max bytes must be positive");
+        if (flushInterval < 0) throw new IllegalArgumentException("Flush interval cannot be negative");
+
+        // Set Constants
+        this.driver = driver;
+        this.sql = sql;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+
+        // Set Attributes
+        bufferLock = new ReentrantLock();
+        flushLock = new ReentrantLock();
+        rows = new LongAdder();
+        bytes = new LongAdder();
+        flushes = new LongAdder();
+        failures = new LongAdder();
+        dropped = new LongAdder();
+        flushNanos = new LongAdder();
+        buffer = new ArrayList<>();
+
+        // Flush on a timer
+        timer = flushInterval > 0 ? Scheduler.scheduleAtFixedRate(this::flushQuietly, flushInterval) : null;
+    }
+
+    // Buffer a row, flushes once the row or byte threshold is reached and rejects rows while failed batches pile up
+    public void add(Object... row) throws SQLException {
+        boolean full;
+        bufferLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Batch writer is closed");
+            if (buffer.size() >= MAX_BATCHES * maxRows || bufferedBytes >= MAX_BATCHES * maxBytes) throw new SQLTransientException("Batch writer buffer is full, " + buffer.size() + " rows are waiting for a successful flush");
+            buffer.add(row.clone());
+            bufferedBytes += Sizes.of(row);
+            full = buffer.size() >= maxRows || bufferedBytes >= maxBytes;
+        } finally {
+            bufferLock.unlock();
+        }
+        if (full) flush();
+    }
+
+    // Write all buffered rows, a batch failing on a connection or retryable error is kept for the next flush, any other failed batch is dropped
+    public void flush() throws SQLException {
+        flushLock.lock();
+        try {
+
+            // Swap the buffer so producers are not blocked while writing
+            ArrayList<Object[]> batch;
+            long batchBytes;
+            bufferLock.lock();
+            try {
+                if (buffer.isEmpty()) return;
+                batch = buffer;
+                batchBytes = bufferedBytes;
+                buffer = new ArrayList<>(Math.min(batch.size(), maxRows));
+                bufferedBytes = 0;
+            } finally {
+                bufferLock.unlock();
+            }
+
+            // Write the batch in one transaction
+            var start = System.nanoTime();
+            try {
+                driver.batch(sql, batch);
+            } catch (SQLException | RuntimeException e) {
+                failures.increment();
+
+                // A row the database rejects would fail every later flush too
+                if (!(e instanceof SQLException sqlException) || !driver.isTransient(sqlException)) {
+                    dropped.add(batch.size());
+                    throw e;
+                }
+
+                // Put the batch back ahead of rows added meanwhile
+                bufferLock.lock();
+                try {
+                    batch.addAll(buffer);
+                    buffer = batch;
+                    bufferedBytes += batchBytes;
+                } finally {
+                    bufferLock.unlock();
+                }
+                throw e;
+            } finally {
+                flushNanos.add(System.nanoTime() - start);
+            }
+            rows.add(batch.size());
+            bytes.add(batchBytes);
+            flushes.increment();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // Flush the remaining rows and stop the timer, after a failed flush the rows stay buffered and close() can be called again
+    @Override
+    public void close() throws SQLException {
+        if (!closed) {
+            closed = true;
+            if (timer != null) timer.cancel(false);
+        }
+        flush();
+        driver.unregister(this);
+    }
+
+    // Getters
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getBuffered() {
+        bufferLock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(rows.sum(), bytes.sum(), flushes.sum(), failures.sum(), dropped.sum(), flushNanos.sum());
+    }
+
+    // Throughput Counters
+    public record Stats(long rows, long bytes, long flushes, long failures, long dropped, long flushNanos) {
+
+        public double rowsPerSecond() {
+            return flushNanos == 0 ? 0 : rows * 1e9 / flushNanos;
+        }
+
+        public double rowsPerFlush() {
+            return flushes == 0 ? 0 : (double) rows / flushes;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package de.MCmoderSD.sql;
+
+import java.sql.SQLException;
+
+// Writer buffering rows in memory, flushed and closed by Driver.disconnect()
+interface Buffered extends AutoCloseable {
+
+    @Override
+    void close() throws SQLException;
+}
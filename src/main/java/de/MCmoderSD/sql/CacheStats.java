@@ -0,0 +1,11 @@
+package de.MCmoderSD.sql;
+
+// Snapshot of cache counters
+public record CacheStats(long hits, long misses, long evictions) {
+
+    // Share of lookups served from the cache
+    public double hitRatio() {
+        var lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
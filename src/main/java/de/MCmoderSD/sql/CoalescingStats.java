@@ -0,0 +1,11 @@
+package de.MCmoderSD.sql;
+
+// Snapshot of single-flight counters, coalesced calls are database executions saved
+public record CoalescingStats(long executions, long coalesced) {
+
+    // Share of calls that joined an execution already in flight
+    public double savedRatio() {
+        var calls = executions + coalesced;
+        return calls == 0 ? 0 : (double) coalesced / calls;
+    }
+}
@@ -0,0 +1,341 @@
+package de.MCmoderSD.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class ConnectionPool {
+
+    // Constants
+    private final Factory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeout;  // ms
+    private final long maxLifetime;     // ms, 0 = unlimited
+    private final long idleTimeout;     // ms, 0 = unlimited
+    private final int cacheSize;        // Statements per connection, 0 = disabled
+    private final long cacheBytes;      // Estimated bytes per connection
+    private final StatementCache.Counters counters;
+
+    // Attributes
+    private final Semaphore permits;                    // One permit per connection that may be leased
+    private final ConcurrentLinkedDeque<Entry> idle;    // LIFO, most recently used connection first
+    private final AtomicInteger total;                  // Idle + leased connections
+
+    // Variables
+    private volatile boolean open;
+
+    // Constructor
+    ConnectionPool(Factory factory, int minSize, int maxSize, long acquireTimeout, long maxLifetime, long idleTimeout, int cacheSize, long cacheBytes, StatementCache.Counters counters) {
+
+        // Set Constants
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeout = acquireTimeout;
+        this.maxLifetime = maxLifetime;
+        this.idleTimeout = idleTimeout;
+        this.cacheSize = cacheSize;
+        this.cacheBytes = cacheBytes;
+        this.counters = counters;
+
+        // Set Attributes
+        permits = new Semaphore(maxSize);
+        idle = new ConcurrentLinkedDeque<>();
+        total = new AtomicInteger();
+        open = true;
+    }
+
+    // Adopt a connection opened elsewhere, e.g. the one that won the primary race
+    void add(Connection connection) throws SQLException {
+        idle.offerLast(entry(connection));
+    }
+
+    // Open the minimum number of connections
+    void fill() throws SQLException {
+        while (open && total.get() < minSize) idle.offerLast(create());
+    }
+
+    // Lease a connection, waiting up to the acquire timeout for one to become available
+    Lease acquire() throws SQLException {
+        if (!open) throw new SQLException("Connection pool is closed", "08003");
+
+        // Wait for a permit
+        try {
+            if (!permits.tryAcquire(acquireTimeout, MILLISECONDS)) throw new SQLTimeoutException("Timed out after " + acquireTimeout + "ms waiting for a connection");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        return lease();
+    }
+
+    // Lease a connection without waiting, null if all connections are leased
+    Lease tryAcquire() throws SQLException {
+        if (!open) throw new SQLException("Connection pool is closed", "08003");
+        return permits.tryAcquire() ? lease() : null;
+    }
+
+    // Reuse an idle connection or open a new one, the caller holds a permit
+    private Lease lease() throws SQLException {
+        try {
+            var now = System.currentTimeMillis();
+            Entry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (!entry.isExpired(now)) return new Lease(entry);
+                discard(entry);
+            }
+            return new Lease(create());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Close all idle connections, leased connections are closed on return
+    void close() {
+        open = false;
+        Entry entry;
+        while ((entry = idle.pollFirst()) != null) discard(entry);
+    }
+
+    private void release(Lease lease) {
+        var entry = lease.entry;
+        try {
+            var now = System.currentTimeMillis();
+            if (lease.broken || !open || entry.connection.isClosed() || entry.isExpired(now) || !reset(lease)) discard(entry);
+            else {
+                entry.lastUsed = now;
+                idle.offerFirst(entry);
+            }
+        } catch (SQLException e) {
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+        evictIdle();
+    }
+
+    // Undo session changes of the last borrower, false if the connection could not be reset
+    private static boolean reset(Lease lease) {
+        var entry = lease.entry;
+        var connection = entry.connection;
+        try {
+
+            // Autocommit is tracked by every driver, asking for it never reaches the server
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+
+            // Only settings changed through the lease, querying them can cost a round trip
+            if (lease.readOnlyChanged) connection.setReadOnly(entry.readOnly);
+            if (lease.isolationChanged) connection.setTransactionIsolation(entry.isolation);
+            return true;
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    // Close connections that sat idle for too long, keeping at least the minimum size
+    private void evictIdle() {
+        if (idleTimeout == 0) return;
+        var now = System.currentTimeMillis();
+        Entry entry;
+        while (total.get() > minSize && (entry = idle.pollLast()) != null) {
+            if (now - entry.lastUsed < idleTimeout) {
+                idle.offerLast(entry);
+                return;
+            }
+            discard(entry);
+        }
+    }
+
+    private Entry create() throws SQLException {
+        return entry(factory.open());
+    }
+
+    private Entry entry(Connection connection) throws SQLException {
+        if (connection == null) throw new SQLException("Driver returned no connection", "08001");
+        try {
+            var entry = new Entry(connection, connection.isReadOnly(), connection.getTransactionIsolation());
+            total.incrementAndGet();
+            return entry;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private void discard(Entry entry) {
+        total.decrementAndGet();
+        if (entry.cache != null) entry.cache.clear();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // Getters
+    public boolean isOpen() {
+        return open;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getIdle() {
+        return idle.size();
+    }
+
+    public int getLeased() {
+        return maxSize - permits.availablePermits();
+    }
+
+    // Connection Factory Interface
+    @FunctionalInterface
+    interface Factory {
+        Connection open() throws SQLException;
+    }
+
+    // Pooled Connection
+    private final class Entry {
+
+        // Constants
+        private final Connection connection;
+        private final StatementCache cache;
+        private final long createdAt;
+        private final boolean readOnly;     // Session state restored on release
+        private final int isolation;
+
+        // Variables
+        private volatile long lastUsed;
+
+        // Constructor
+        private Entry(Connection connection, boolean readOnly, int isolation) {
+            this.connection = connection;
+            this.readOnly = readOnly;
+            this.isolation = isolation;
+            this.cache = cacheSize > 0 ? new StatementCache(cacheSize, cacheBytes, counters) : null;
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsed = createdAt;
+        }
+
+        private boolean isExpired(long now) {
+            return maxLifetime != 0 && now - createdAt >= maxLifetime;
+        }
+    }
+
+    // Lease Class
+    public final class Lease implements AutoCloseable {
+
+        // Constants
+        private final Entry entry;
+
+        // Attributes
+        private ArrayList<PreparedStatement> statements;    // Uncached statements to close on return
+
+        // Variables
+        private boolean released;
+        private boolean broken;
+        private boolean joined;     // Inside a transaction run by the driver, writes join it instead of committing
+        private boolean readOnlyChanged;    // Session settings to restore on return
+        private boolean isolationChanged;
+
+        // Constructor
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        // Prepare a statement through the connection's statement cache, it stays owned by the lease and must not be closed
+        public PreparedStatement prepare(String sql) throws SQLException {
+            var connection = connection();
+            if (entry.cache != null) return entry.cache.prepare(connection, sql);
+
+            // Cache disabled, close the statement when the lease is returned
+            var statement = connection.prepareStatement(sql);
+            if (statements == null) statements = new ArrayList<>();
+            statements.add(statement);
+            return statement;
+        }
+
+        // Getters
+        ConnectionPool pool() {
+            return ConnectionPool.this;
+        }
+
+        public Connection connection() {
+            if (released) throw new IllegalStateException("Lease has already been returned");
+            return entry.connection;
+        }
+
+        boolean isJoined() {
+            return joined;
+        }
+
+        // Setters
+        void setJoined(boolean joined) {
+            this.joined = joined;
+        }
+
+        // Session settings changed here are restored on return, changes made on the connection itself are not
+        public void setReadOnly(boolean readOnly) throws SQLException {
+            readOnlyChanged = true;
+            connection().setReadOnly(readOnly);
+        }
+
+        public void setTransactionIsolation(int level) throws SQLException {
+            isolationChanged = true;
+            connection().setTransactionIsolation(level);
+        }
+
+        // Restore the isolation level the connection was created with
+        void resetTransactionIsolation() throws SQLException {
+            if (!isolationChanged) return;
+            connection().setTransactionIsolation(entry.isolation);
+            isolationChanged = false;
+        }
+
+        // Close the connection on return instead of reusing it
+        public void invalidate() {
+            broken = true;
+        }
+
+        // Return the connection to the pool
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+
+            // Close uncached statements
+            if (statements != null) for (var statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+
+            release(this);
+        }
+    }
+}
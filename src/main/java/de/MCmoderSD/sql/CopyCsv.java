@@ -0,0 +1,67 @@
+package de.MCmoderSD.sql;
+
+import java.util.ArrayList;
+
+// CSV encoding of COPY ... WITH (FORMAT csv), kept apart from PgCopy so it loads without the PostgreSQL driver
+final class CopyCsv {
+
+    // Constructor
+    private CopyCsv() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // Encode a row as one CSV line, strings are always quoted so empty strings differ from NULL
+    static void encode(Object[] row, StringBuilder line) {
+        for (var i = 0; i < row.length; i++) {
+            if (i > 0) line.append(',');
+            var value = row[i];
+            switch (value) {
+                case null -> {}
+                case Number number -> line.append(number);
+                case Boolean bool -> line.append(bool);
+                case byte[] bytes -> {
+                    line.append("\\x");
+                    for (var b : bytes) line.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+                }
+                default -> {
+                    line.append('"');
+                    var text = value.toString();
+                    for (var j = 0; j < text.length(); j++) {
+                        var c = text.charAt(j);
+                        if (c == '"') line.append('"');
+                        line.append(c);
+                    }
+                    line.append('"');
+                }
+            }
+        }
+        line.append('\n');
+    }
+
+    // Decode one CSV line, unquoted empty fields are NULL
+    static String[] decode(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var length = line.endsWith("\r\n") ? line.length() - 2 : line.endsWith("\n") ? line.length() - 1 : line.length();
+        var quoted = false;     // Field started with a quote
+        var inQuotes = false;   // Currently inside quotes
+        for (var i = 0; i < length; i++) {
+            var c = line.charAt(i);
+            if (inQuotes) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < length && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else inQuotes = false;
+            } else if (c == '"') {
+                quoted = inQuotes = true;
+            } else if (c == ',') {
+                fields.add(quoted || !field.isEmpty() ? field.toString() : null);
+                field.setLength(0);
+                quoted = false;
+            } else field.append(c);
+        }
+        fields.add(quoted || !field.isEmpty() ? field.toString() : null);
+        return fields.toArray(String[]::new);
+    }
+}
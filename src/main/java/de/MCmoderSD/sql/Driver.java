@@ -1,27 +1,92 @@
 package de.MCmoderSD.sql;
 
+import de.MCmoderSD.sql.ConnectionPool.Lease;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static de.MCmoderSD.sql.Driver.DatabaseType.*;
+import static de.MCmoderSD.sql.Driver.State.*;
 
-@SuppressWarnings({"unused", "UnusedReturnValue", "BusyWait"})
+@SuppressWarnings({"unused", "UnusedReturnValue"})
 public abstract class Driver {
 
     // Constants
-    private final String url;
+    private final PrimaryLocator primary;   // Candidate URLs for the primary, a single one unless failover hosts are set
+    private final String database;
+    private final List<String[]> replicaHosts;   // Host and port of each read replica
     private final String username;
     private final String password;
     private final DatabaseType databaseType;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long acquireTimeout;
+    private final long maxLifetime;
+    private final long idleTimeout;
+    private final long validationInterval;
+    private final int statementCacheSize;
+    private final long statementCacheBytes;
+    private final int fetchSize;
+    private final long connectTimeout;      // ms, 0 = JDBC driver default
+    private final List<String> pragmas;     // Applied to every new SQLite connection
+    private final int readerPoolSize;       // SQLite single-writer mode, 0 = disabled
+    private final long groupCommitWindow;   // ms
+    private final int groupCommitSize;      // SQLite group commit, 0 = disabled
+    private final int transactionRetries;
+    private static final int VALIDATION_TIMEOUT = 5;    // Seconds
+    private static final long RETRY_DELAY = 10;         // ms, base of the transaction retry backoff
+    private static final long MAX_RETRY_DELAY = 1000;   // ms, cap of the transaction retry backoff
 
     // Attributes
-    protected Connection connection;
+    private final AtomicReference<State> state;
+    private final AtomicBoolean validating;
+    private final StatementCache.Counters statementCacheCounters;
+    private final AtomicBoolean reconnecting;
+    private final Object connectLock;
+    private final Semaphore asyncPermits;   // Bounds in-flight async work to the pool size
+    private final Set<Buffered> writers;    // Flushed on disconnect
+    private final QueryMetrics metrics;
+    private final ResultCache resultCache;  // null = disabled
+    private final RowCounter rowCounter;
+    private final SingleFlight singleFlight;    // null = disabled
+    private final ThreadLocal<Lease> transactions;  // Lease bound to the current thread by inTransaction() or write(Work), null outside
+    private volatile ConnectionPool pool;
+    private volatile ConnectionPool readers;
+    private volatile ReplicaRouter replicas;
+    private volatile SqliteWriter writer;
+    private volatile ScheduledFuture<?> validator;
+    private volatile long lastValidated;
 
     // Variables
-    private boolean autoReconnect;   // Default: false
-    private int reconnectAttempts;   // Default: 0 (infinite)
-    private long reconnectDelay;     // Default: 1000ms
+    private volatile boolean autoReconnect;     // Default: false
+    private volatile int reconnectAttempts;     // Default: 0 (infinite)
+    private volatile long reconnectDelay;       // Default: 1000ms, base of the backoff
+    private volatile long maxReconnectDelay;    // Default: 30000ms, cap of the backoff
 
     // Constructor
     protected Driver(Builder builder) {
@@ -33,97 +98,1122 @@ public abstract class Driver {
         this.databaseType = builder.databaseType;
         this.username = builder.username;
         this.password = builder.password;
+        this.database = builder.database;
+        this.replicaHosts = List.copyOf(builder.replicas);
+
+        // Build URLs
+        var urls = new ArrayList<String>();
+        if (databaseType == SQLITE) urls.add(databaseType.getUrl(builder.database));
+        else {
+            urls.add(databaseType.getUrl(builder.host, builder.port, builder.database));
+            for (var failover : builder.failovers) urls.add(databaseType.getUrl(failover[0], Integer.parseInt(failover[1]), builder.database));
+        }
+        this.primary = new PrimaryLocator(List.copyOf(urls), url -> openConnection(url, false), databaseType);
+        this.connectTimeout = builder.connectTimeout != null ? builder.connectTimeout : 0;
+
+        // SQLite Single-Writer Mode, readers only see the writer's data through a shared WAL file
+        this.readerPoolSize = builder.readerPoolSize != null ? builder.readerPoolSize : 0;
+        this.groupCommitWindow = builder.groupCommitWindow != null ? builder.groupCommitWindow : 0;
+        this.groupCommitSize = builder.groupCommitSize != null ? builder.groupCommitSize : 0;
+        if (readerPoolSize > 0 && builder.database != null && (builder.database.equals(":memory:") || builder.database.contains("mode=memory"))) throw new IllegalArgumentException("Single-writer mode requires a database file");
 
-        // Build URL
-        if (databaseType == SQLITE) this.url = databaseType.getUrl(builder.database);
-        else this.url = databaseType.getUrl(builder.host, builder.port, builder.database);
+        // Pool Settings, SQLite defaults to a single connection so in-memory databases keep working
+        this.maxPoolSize = readerPoolSize > 0 ? 1 : builder.maxPoolSize != null ? builder.maxPoolSize : databaseType == SQLITE ? 1 : 10;
+        this.minPoolSize = readerPoolSize > 0 ? 1 : builder.minPoolSize != null ? builder.minPoolSize : 1;
+        this.acquireTimeout = builder.acquireTimeout != null ? builder.acquireTimeout : 30000;
+        this.maxLifetime = builder.maxLifetime != null ? builder.maxLifetime : databaseType == SQLITE ? 0 : 1800000;
+        this.idleTimeout = builder.idleTimeout != null ? builder.idleTimeout : 600000;
+        this.validationInterval = builder.validationInterval != null ? builder.validationInterval : 5000;
+        this.statementCacheSize = builder.statementCacheSize != null ? builder.statementCacheSize : 256;
+        this.statementCacheBytes = builder.statementCacheBytes != null ? builder.statementCacheBytes : 1048576;
+        this.fetchSize = builder.fetchSize != null ? builder.fetchSize : 1000;
+        this.transactionRetries = builder.transactionRetries != null ? builder.transactionRetries : 5;
+        this.pragmas = databaseType == SQLITE ? builder.getPragmas() : List.of();
+        statementCacheCounters = new StatementCache.Counters();
+        asyncPermits = new Semaphore(Math.max(maxPoolSize, readerPoolSize));
+        writers = ConcurrentHashMap.newKeySet();
+        metrics = new QueryMetrics(builder.metrics == null || builder.metrics);
+        singleFlight = builder.singleFlight != null && builder.singleFlight ? new SingleFlight() : null;
+        rowCounter = new RowCounter(databaseType, builder.rowCountRefresh != null ? builder.rowCountRefresh : 10000);
+        resultCache = builder.resultCacheSize != null ? new ResultCache(builder.resultCacheSize, builder.resultCacheBytes, builder.resultCacheTtl) : null;
+        transactions = new ThreadLocal<>();
+
+        // Health State
+        state = new AtomicReference<>(DOWN);
+        validating = new AtomicBoolean(false);
+        reconnecting = new AtomicBoolean(false);
+        connectLock = new Object();
 
         // Set Default
         autoReconnect = false;
         reconnectAttempts = 0;
         reconnectDelay = 1000;
+        maxReconnectDelay = 30000;
+    }
+
+    // Start a reconnect cycle unless one is already running
+    private void scheduleReconnect() {
+        if (!autoReconnect || !reconnecting.compareAndSet(false, true)) return;
+        var backoff = new Backoff(reconnectDelay, maxReconnectDelay);
+
+        // With failover hosts another host can take over right away, so the first attempt does not wait
+        if (primary.isMultiHost()) Scheduler.execute(() -> reconnect(backoff, 1));
+        else Scheduler.schedule(() -> reconnect(backoff, 1), backoff.next());
     }
 
     // Auto Reconnect Method
-    private void autoReconnect() {
+    private void reconnect(Backoff backoff, int attempt) {
 
-        // Start Auto Reconnect Thread
-        new Thread(() -> {
-            var attempts = 0;
-            while (autoReconnect && (reconnectAttempts == 0 || attempts < reconnectAttempts)) {
+        // Stop once connected or disabled
+        if (!autoReconnect || connect()) {
+            reconnecting.set(false);
+            return;
+        }
 
-                // Try to reconnect if not connected
-                if (!isConnected()) {
-                    connect();
-                    attempts++;
-                } else attempts = 0;
+        // Give up after the configured attempts
+        if (reconnectAttempts != 0 && attempt >= reconnectAttempts) {
+            reconnecting.set(false);
+            System.err.println("Reconnect failed after " + attempt + " attempts");
+            return;
+        }
 
-                // Wait before next attempt
-                try {
-                    Thread.sleep(reconnectDelay);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+        // Try again after the next backoff delay
+        Scheduler.schedule(() -> reconnect(backoff, attempt + 1), backoff.next());
+    }
+
+    // Mark the database as unreachable
+    private void markDown() {
+        state.set(DOWN);
+        scheduleReconnect();
+    }
+
+    // Open a new physical connection for the pool
+    private Connection openConnection() throws SQLException {
+        return openConnection(false);
+    }
+
+    private Connection openReader() throws SQLException {
+        return openConnection(true);
+    }
+
+    private Connection openConnection(boolean reader) throws SQLException {
+        return openConnection(primary.getPrimary(), reader);
+    }
+
+    private Connection openConnection(String url, boolean reader) throws SQLException {
+        var properties = databaseType.getProperties();
+        if (username != null) properties.setProperty("user", username);
+        if (password != null) properties.setProperty("password", password);
+        if (connectTimeout > 0) databaseType.setConnectTimeout(properties, connectTimeout);
+        var connection = DriverManager.getConnection(url, properties);
+        if (reader && databaseType != SQLITE) connection.setReadOnly(true);
+
+        // Enable SQLite-specific features
+        if (databaseType == SQLITE && connection != null) {
+            try (var stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA foreign_keys = ON;");
+                for (var pragma : pragmas) if (!reader || !pragma.startsWith("PRAGMA journal_mode")) stmt.execute(pragma);
+                if (reader) stmt.execute("PRAGMA query_only = ON;");
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        return connection;
+    }
+
+    // Validate a pooled connection and update the health state
+    private boolean validate() {
+        var pool = this.pool;
+        if (pool == null || !pool.isOpen()) return false;
+
+        // Ping the database without queueing behind application work, a busy pool says nothing about its health
+        var valid = false;
+        try (var lease = pool.tryAcquire()) {
+            if (lease == null) return state.get() == UP;
+            valid = lease.connection().isValid(VALIDATION_TIMEOUT);
+
+            // A demoted primary stays reachable, only its read-only state reveals the failover
+            if (valid && primary.isMultiHost() && databaseType.isReadOnly(lease.connection())) {
+                System.err.println("Primary has become read-only");
+                valid = false;
+            }
+            if (!valid) lease.invalidate();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+
+        // Ignore results for a pool that has been replaced or closed meanwhile
+        if (pool != this.pool || !pool.isOpen()) return false;
+        if (valid) {
+            lastValidated = System.currentTimeMillis();
+            state.set(UP);
+        } else markDown();
+        return valid;
+    }
+
+    // Background Validation
+    private void startValidator() {
+        if (validationInterval == 0) return;
+        validator = Scheduler.scheduleAtFixedRate(() -> {
+            if (!validating.compareAndSet(false, true)) return;
+            try {
+                validate();
+            } finally {
+                validating.set(false);
             }
-        }).start();
+        }, validationInterval);
+    }
+
+    private void stopValidator() {
+        var validator = this.validator;
+        if (validator != null) validator.cancel(false);
+        this.validator = null;
     }
 
     // Connection Methods
     public boolean connect() {
+        if (isConnected()) return true;
+        synchronized (connectLock) {
+            return open();
+        }
+    }
+
+    private boolean open() {
         try {
             if (isConnected()) return true;
+            state.set(CONNECTING);
             databaseType.registerDriver();
-            connection = DriverManager.getConnection(url, username, password);
+            var located = primary.locate();
+
+            // Replace the previous pool
+            stopValidator();
+            var previous = pool;
+            if (previous != null) previous.close();
+            var pool = new ConnectionPool(this::openConnection, minPoolSize, maxPoolSize, acquireTimeout, maxLifetime, idleTimeout, statementCacheSize, statementCacheBytes, statementCacheCounters);
+            this.pool = pool;
+            if (located != null) pool.add(located);
+            pool.fill();
 
-            // Enable SQLite-specific features
-            if (databaseType == SQLITE && connection != null) {
-                try (var stmt = connection.createStatement()) {
-                    stmt.execute("PRAGMA foreign_keys = ON;");
+            // SQLite Single-Writer Mode, the writer connection above has switched the file to WAL
+            if (readerPoolSize > 0) {
+                var previousReaders = readers;
+                if (previousReaders != null) previousReaders.close();
+                var readers = new ConnectionPool(this::openReader, 1, readerPoolSize, acquireTimeout, maxLifetime, idleTimeout, statementCacheSize, statementCacheBytes, statementCacheCounters);
+                this.readers = readers;
+                readers.fill();
+            }
+
+            // Read Replicas, an unreachable replica only gets ejected
+            if (!replicaHosts.isEmpty()) {
+                var previousReplicas = replicas;
+                if (previousReplicas != null) previousReplicas.close();
+                var replicas = new ArrayList<ReplicaRouter.Replica>();
+                for (var replicaHost : replicaHosts) {
+                    var replicaUrl = databaseType.getUrl(replicaHost[0], Integer.parseInt(replicaHost[1]), database);
+                    var replicaPool = new ConnectionPool(() -> openConnection(replicaUrl, true), minPoolSize, maxPoolSize, acquireTimeout, maxLifetime, idleTimeout, statementCacheSize, statementCacheBytes, statementCacheCounters);
+                    var replica = new ReplicaRouter.Replica(replicaHost[0], Integer.parseInt(replicaHost[1]), replicaPool);
+                    try {
+                        replicaPool.fill();
+                    } catch (SQLException e) {
+                        System.err.println(e.getMessage());
+                        replica.eject();
+                    }
+                    replicas.add(replica);
                 }
+                this.replicas = new ReplicaRouter(replicas);
             }
 
-            return connection != null && connection.isValid(0);
+            // SQLite Writer Queue, also used on its own for group commit
+            if ((readerPoolSize > 0 || groupCommitSize > 0) && (writer == null || !writer.isRunning())) writer = new SqliteWriter(this, groupCommitWindow, groupCommitSize);
+
+            // Validate once and keep the state fresh in the background
+            var connected = validate();
+            startValidator();
+            return connected;
         } catch (SQLException | ClassNotFoundException e) {
             System.err.println(e.getMessage());
+            markDown();
             return false;
         }
     }
 
+    // False if a buffered writer could not be flushed, it keeps its rows and is flushed again by the next disconnect()
     public boolean disconnect() {
+
+        // Flush buffered writes while the pool is still open
+        var flushed = true;
+        for (var writer : writers) {
+            try {
+                writer.close();
+            } catch (SQLException | RuntimeException e) {
+                System.err.println(e.getMessage());
+                flushed = false;
+            }
+        }
+
+        synchronized (connectLock) {
+
+            // Finish queued SQLite writes
+            var writer = this.writer;
+            if (writer != null) writer.close(acquireTimeout);
+            this.writer = null;
+
+            // Close the pools
+            stopValidator();
+            var readers = this.readers;
+            if (readers != null) readers.close();
+            var replicas = this.replicas;
+            if (replicas != null) replicas.close();
+            var pool = this.pool;
+            if (pool != null) pool.close();
+            state.set(DOWN);
+
+            // Writes made while disconnected would go unnoticed
+            if (resultCache != null) resultCache.invalidateAll();
+            return flushed;
+        }
+    }
+
+    // Lease a pooled connection, the lease must be closed to return it
+    public Lease acquire() throws SQLException {
+        return acquire(pool);
+    }
+
+    // Lease a connection for reading only, from a replica or the SQLite reader pool if configured
+    public Lease acquireReadOnly() throws SQLException {
+        var readers = this.readers;
+        var fallback = readers != null ? readers : pool;
+
+        // Read Replicas, fall back to the primary once none is healthy
+        var replicas = this.replicas;
+        if (replicas != null) {
+            var start = System.nanoTime();
+            var lease = acquireReplica(replicas, fallback);
+            if (lease != null) {
+                metrics.recordAcquire(System.nanoTime() - start);
+                return lease;
+            }
+        }
+
+        return acquire(fallback);
+    }
+
+    // A saturated replica is load and not a failure, try the others and the primary before queueing, null = use the primary
+    private static Lease acquireReplica(ReplicaRouter replicas, ConnectionPool fallback) throws SQLException {
+        var chosen = replicas.choose();
+        if (chosen == null) return null;
+        var lease = tryAcquire(chosen);
+        if (lease != null) return lease;
+        for (var replica : replicas.alternatives(chosen)) if ((lease = tryAcquire(replica)) != null) return lease;
+        if (fallback != null && fallback.isOpen() && (lease = fallback.tryAcquire()) != null) return lease;
+
+        // Everything is busy, queue on the least loaded healthy replica
+        var replica = replicas.choose();
+        if (replica == null) return null;
         try {
-            if (!isConnected()) return true;
-            connection.close();
-            return connection == null || connection.isClosed();
+            lease = replica.pool().acquire();
+            replica.succeeded();
+            return lease;
         } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
+            if (!isConnectionFailure(e)) throw e;
+            replica.eject();
+            return null;
+        }
+    }
+
+    // Lease from a replica without waiting, null if it is saturated or had to be ejected
+    private static Lease tryAcquire(ReplicaRouter.Replica replica) throws SQLException {
+        try {
+            var lease = replica.pool().tryAcquire();
+            if (lease != null) replica.succeeded();
+            return lease;
+        } catch (SQLException e) {
+            if (!isConnectionFailure(e)) throw e;
+            replica.eject();
+            return null;
+        }
+    }
+
+    private Lease acquire(ConnectionPool pool) throws SQLException {
+        if (pool == null) throw new SQLException("Not connected", "08003");
+        var start = System.nanoTime();
+        try {
+            return pool.acquire();
+        } catch (SQLException e) {
+            reportFailure(e);
+            throw e;
+        } finally {
+            metrics.recordAcquire(System.nanoTime() - start);
+        }
+    }
+
+    // Eject a failing replica instead of degrading the primary
+    private void reportFailure(Lease lease, SQLException e) {
+        var replicas = this.replicas;
+        var replica = replicas != null ? replicas.find(lease.pool()) : null;
+        if (replica == null) reportFailure(e);
+        else if (isConnectionFailure(e)) {
+            lease.invalidate();
+            replica.eject();
+        }
+    }
+
+    // Mark the connection as degraded after a connection-level failure and re-validate in the background
+    protected void reportFailure(SQLException e) {
+        if (!isConnectionFailure(e)) return;
+        if (state.compareAndSet(UP, DEGRADED)) Scheduler.execute(this::validate);
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        var sqlState = e.getSQLState();
+        return e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLTransientConnectionException
+                || e instanceof SQLRecoverableException
+                || (sqlState != null && sqlState.startsWith("08"));
+    }
+
+    // Whether the same write may succeed later, anything else would fail again on every retry
+    boolean isTransient(SQLException e) {
+        return isConnectionFailure(e) || databaseType.isRetryable(e);
+    }
+
+    // Query Methods
+    // Identical concurrent calls share one execution and its unmodifiable result if single-flight is enabled, reads inside a transaction never do
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        var singleFlight = this.singleFlight;
+        if (singleFlight != null && transactions.get() == null) return singleFlight.execute(QueryKey.of(sql, mapper, params), () -> Collections.unmodifiableList(read(sql, mapper, false, params)));
+        return read(sql, mapper, false, params);
+    }
+
+    private <T> List<T> read(String sql, RowMapper<T> mapper, boolean primary, Object[] params) throws SQLException {
+        return executeRead(sql, primary, (statement, lease) -> {
+            bind(statement, params);
+            return map(statement, mapper);
+        });
+    }
+
+    // Serve repeated reads from the result cache, the returned list is shared and unmodifiable. Reads inside a transaction bypass it
+    // Misses read from the primary, a lagging replica could refill the cache with rows from before the write that invalidated them
+    @SuppressWarnings("unchecked")
+    public <T> List<T> queryCached(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        var resultCache = this.resultCache;
+        if (resultCache == null || transactions.get() != null) return query(sql, mapper, params);
+        var key = QueryKey.of(sql, mapper, params).onPrimary();
+        var cached = resultCache.get(key);
+        if (cached != null) return (List<T>) cached;
+        var version = resultCache.version();
+        var singleFlight = this.singleFlight;
+        var rows = singleFlight != null ? singleFlight.execute(key, () -> Collections.unmodifiableList(read(sql, mapper, true, params))) : Collections.unmodifiableList(read(sql, mapper, true, params));
+        resultCache.put(key, rows, ResultCache.size(rows), version);
+        return rows;
+    }
+
+    public int update(String sql, Object... params) throws SQLException {
+        return executeWrite(sql, (statement, lease) -> {
+            bind(statement, params);
+            return statement.executeUpdate();
+        });
+    }
+
+    // Execute all rows as one batch inside a single transaction
+    public int[] batch(String sql, List<Object[]> rows) throws SQLException {
+        return executeWrite(sql, (statement, lease) -> executeBatch(statement, lease, rows));
+    }
+
+    // Run work on the writer connection, queued behind other writes in SQLite single-writer mode. Driver calls made by the work use the same connection
+    public <T> CompletableFuture<T> write(Work<T> work) {
+        var writer = this.writer;
+        if (writer != null) return writer.submit(lease -> runWith(lease, work)).whenComplete((result, e) -> afterWrite(null));
+        var future = new CompletableFuture<T>();
+        Scheduler.execute(() -> {
+            try (var lease = acquire()) {
+                T result;
+                try {
+                    result = runWith(lease, work);
+                } finally {
+                    afterWrite(null);
+                }
+                future.complete(result);
+            } catch (SQLException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // Lazily stream rows, the stream holds a pooled connection until it is closed
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        var lease = acquireReadOnly();
+        var resources = new StreamResources(lease, sql, metrics);
+        try {
+            var connection = lease.connection();
+            resources.autoCommit = connection.getAutoCommit();
+
+            // Uncached statement, streaming settings must not leak into the statement cache
+            resources.statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            databaseType.configureStreaming(connection, resources.statement, fetchSize);
+            bind(resources.statement, params);
+            resources.resultSet = resources.statement.executeQuery();
+            resources.nanos = System.nanoTime() - resources.start;
+
+            return StreamSupport.stream(new RowSpliterator<>(resources, mapper), false).onClose(resources::close);
+        } catch (SQLException | RuntimeException e) {
+            resources.failed = true;
+            resources.close();
+            if (e instanceof SQLException sqlException) reportFailure(lease, sqlException);
+            throw e;
+        }
+    }
+
+    // Batch Writer Methods, writers are flushed and closed on disconnect
+    public BatchWriter batchWriter(String sql) {
+        return batchWriter(sql, 1000, 1048576, 1000);
+    }
+
+    public BatchWriter batchWriter(String sql, int maxRows, long maxBytes, long flushInterval) {
+        var writer = new BatchWriter(this, sql, maxRows, maxBytes, flushInterval);
+        writers.add(writer);
+        return writer;
+    }
+
+    // Bulk Upsert Methods, rows matching an existing conflict key update the update columns instead, none = keep the row
+    public Upsert upsert(String table, List<String> columns, List<String> conflictColumns, List<String> updateColumns) {
+        return new Upsert(this, databaseType, table, columns, conflictColumns, updateColumns, Set.of());
+    }
+
+    public int upsert(String table, List<String> columns, List<String> conflictColumns, List<String> updateColumns, List<Object[]> rows) throws SQLException {
+        return upsert(table, columns, conflictColumns, updateColumns).execute(rows);
+    }
+
+    // Write-Behind Methods, pending rows are flushed and the buffer closed on disconnect
+    public WriteBehind writeBehind(String table, List<String> keyColumns, List<String> valueColumns) {
+        return writeBehind(table, keyColumns, valueColumns, Set.of(), 1000, 1000);
+    }
+
+    public WriteBehind writeBehind(String table, List<String> keyColumns, List<String> valueColumns, Set<String> counterColumns, int maxPending, long flushInterval) {
+        var writer = new WriteBehind(this, databaseType, table, keyColumns, valueColumns, counterColumns, maxPending, flushInterval);
+        writers.add(writer);
+        return writer;
+    }
+
+    void unregister(Buffered writer) {
+        writers.remove(writer);
+    }
+
+    // Batch Loader Methods, lookups within the window are loaded by a single query
+    public <K, V> BatchLoader<K, V> loader(String table, String keyColumn, RowMapper<V> mapper) {
+        return loader(table, keyColumn, mapper, 1000, 1);
+    }
+
+    public <K, V> BatchLoader<K, V> loader(String table, String keyColumn, RowMapper<V> mapper, int maxBatch, long window) {
+        return new BatchLoader<>(this, databaseType, table, keyColumn, mapper, maxBatch, window);
+    }
+
+    // Keyset Pagination Methods, the key columns must form a unique key
+    public <T> KeysetIterator<T> paginate(String table, List<String> keyColumns, int pageSize, RowMapper<T> mapper) {
+        return paginate(table, keyColumns, pageSize, mapper, false);
+    }
+
+    public <T> KeysetIterator<T> paginate(String table, List<String> keyColumns, int pageSize, RowMapper<T> mapper, boolean prefetch) {
+        return new KeysetIterator<>(this, databaseType, table, keyColumns, pageSize, mapper, prefetch);
+    }
+
+    // Scan a table in parallel, one partition of the key range per pooled connection, the stream must be closed
+    public <T> Stream<T> parallelScan(String table, String keyColumn, int partitions, RowMapper<T> mapper) throws SQLException {
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (keyColumn == null || keyColumn.isBlank()) throw new IllegalArgumentException("Key column cannot be null or blank");
+        if (partitions < 1) throw new IllegalArgumentException("Partitions must be positive");
+        if (mapper == null) throw new IllegalArgumentException("Mapper cannot be null");
+
+        // Sample the key range
+        var key = databaseType.quote(keyColumn);
+        var from = " FROM " + databaseType.quote(table);
+        var range = query("SELECT MIN(" + key + "), MAX(" + key + ")" + from, resultSet -> new Object[] {resultSet.getObject(1), resultSet.getObject(2)}).getFirst();
+        if (range[0] == null) return Stream.empty();
+
+        // More partitions than connections would only queue up on the pool
+        var connections = readerPoolSize > 0 ? readerPoolSize : maxPoolSize;
+        var boundaries = KeyRange.split(range[0], range[1], Math.min(partitions, connections));
+        var last = boundaries.size() - 2;
+        var rangeQuery = "SELECT *" + from + " WHERE " + key + " >= ? AND " + key + " < ?";
+        var lastQuery = "SELECT *" + from + " WHERE " + key + " >= ? AND " + key + " <= ?";
+        return IntStream.rangeClosed(0, last).parallel().boxed().flatMap(partition -> {
+            try {
+                return stream(partition == last ? lastQuery : rangeQuery, mapper, boundaries.get(partition), boundaries.get(partition + 1));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    // PostgreSQL COPY Bulk Loader and Exporter
+    public PgCopy copy() {
+        if (databaseType != POSTGRESQL) throw new UnsupportedOperationException("COPY is only supported for PostgreSQL databases");
+        return new PgCopy(this, databaseType);
+    }
+
+    // Row Count Methods, CACHED by default so repeated calls never scan the table twice within the refresh interval
+    public long countRows(String table) throws SQLException {
+        return countRows(table, CountMode.CACHED);
+    }
+
+    public long countRows(String table, CountMode mode) throws SQLException {
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (mode == null) throw new IllegalArgumentException("Count mode cannot be null");
+        return rowCounter.count(this, table, mode);
+    }
+
+    // Result Cache Invalidation, for writes made through acquire() or outside this Driver
+    public void invalidateResultCache(String table) {
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (resultCache != null) resultCache.invalidate(table);
+        if (singleFlight != null) singleFlight.forget();
+    }
+
+    public void invalidateResultCache() {
+        afterWrite(null);
+    }
+
+    // Drop cached results and in-flight reads a write may have made stale, null if the written tables are unknown
+    private void afterWrite(String sql) {
+        if (resultCache != null) {
+            if (sql == null) resultCache.invalidateAll();
+            else resultCache.invalidateWrite(sql);
+        }
+        if (singleFlight != null) singleFlight.forget();
+    }
+
+    // Async Query Methods, run on virtual threads and hold at most one pooled connection each
+    public <T> CompletableFuture<List<T>> queryAsync(String sql, RowMapper<T> mapper, Object... params) {
+        return executeAsync(sql, true, (statement, lease) -> {
+            bind(statement, params);
+            return map(statement, mapper);
+        });
+    }
+
+    public CompletableFuture<Integer> updateAsync(String sql, Object... params) {
+        return executeAsync(sql, false, (statement, lease) -> {
+            bind(statement, params);
+            return statement.executeUpdate();
+        });
+    }
+
+    public CompletableFuture<int[]> batchAsync(String sql, List<Object[]> rows) {
+        return executeAsync(sql, false, (statement, lease) -> executeBatch(statement, lease, rows));
+    }
+
+    // Transaction Methods, retried with backoff on deadlocks, serialization failures and SQLite busy errors
+    // query, queryCached, update and batch called by the work on its thread join the transaction, nested calls join the outer one
+    public <T> T inTransaction(Work<T> work) throws SQLException {
+        return inTransaction(Isolation.DEFAULT, work);
+    }
+
+    public <T> T inTransaction(Isolation isolation, Work<T> work) throws SQLException {
+        if (isolation == null) throw new IllegalArgumentException("Isolation cannot be null");
+        if (work == null) throw new IllegalArgumentException("Work cannot be null");
+
+        // Join a transaction already running on the thread's lease or start one on it, the outer call retries as a whole
+        var bound = transactions.get();
+        if (bound != null) return transaction(bound, isolation, work);
+
+        var backoff = new Backoff(RETRY_DELAY, MAX_RETRY_DELAY);
+        for (var attempt = 0; ; attempt++) {
+            try {
+                var result = transaction(isolation, work);
+                metrics.recordCommit();
+                return result;
+            } catch (SQLException e) {
+                if (attempt >= transactionRetries || !databaseType.isRetryable(e)) {
+                    metrics.recordFailure();
+                    throw e;
+                }
+            }
+
+            // Wait before the next attempt
+            metrics.recordRetry();
+            try {
+                Thread.sleep(backoff.next());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting to retry the transaction", e);
+            }
+        }
+    }
+
+    // One attempt on the writer connection, the written tables are unknown
+    private <T> T transaction(Isolation isolation, Work<T> work) throws SQLException {
+        var writer = this.writer;
+        try {
+            if (writer != null) return await(writer.submit(lease -> transaction(lease, isolation, work)));
+            try (var lease = acquire()) {
+                return transaction(lease, isolation, work);
+            } catch (SQLException e) {
+                reportFailure(e);
+                throw e;
+            }
+        } finally {
+            afterWrite(null);
+        }
+    }
+
+    private <T> T transaction(Lease lease, Isolation isolation, Work<T> work) throws SQLException {
+        var connection = lease.connection();
+
+        // Join the surrounding transaction, e.g. a group commit that rolls the work back to its savepoint
+        if (lease.isJoined()) return runWith(lease, work);
+
+        if (isolation != Isolation.DEFAULT) lease.setTransactionIsolation(isolation.level);
+        connection.setAutoCommit(false);
+        lease.setJoined(true);
+        try {
+            var result = runWith(lease, work);
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw e;
+        } finally {
+            lease.setJoined(false);
+
+            // A connection that cannot be reset must not be reused
+            try {
+                connection.setAutoCommit(true);
+                lease.resetTransactionIsolation();
+            } catch (SQLException e) {
+                lease.invalidate();
+            }
+        }
+    }
+
+    // Run work with its lease bound to the current thread, so driver calls made by the work use the same connection
+    private <T> T runWith(Lease lease, Work<T> work) throws SQLException {
+        var previous = transactions.get();
+        transactions.set(lease);
+        try {
+            return work.execute(lease.connection());
+        } finally {
+            if (previous == null) transactions.remove();
+            else transactions.set(previous);
+        }
+    }
+
+    // Run a call against a cached statement on a leased connection, or on the lease of the transaction the thread runs
+    // Primary reads skip the replicas, the SQLite readers share the writer's WAL and never lag
+    private <T> T executeRead(String sql, boolean primary, StatementCall<T> call) throws SQLException {
+        var joined = transactions.get();
+        if (joined != null) return measure(sql, call, joined, null);
+        var readers = this.readers;
+        try (var lease = primary ? acquire(readers != null ? readers : pool) : acquireReadOnly()) {
+            try {
+                return measure(sql, call, lease, null);
+            } catch (SQLException e) {
+                reportFailure(lease, e);
+                throw e;
+            }
+        }
+    }
+
+    private <T> T executeWrite(String sql, StatementCall<T> call) throws SQLException {
+        var writer = this.writer;
+        try {
+            var joined = transactions.get();
+            if (joined != null) return measure(sql, call, joined, null);
+            if (writer != null) return await(writer.submit(lease -> measure(sql, call, lease, null)));
+            try (var lease = acquire()) {
+                return measure(sql, call, lease, null);
+            } catch (SQLException e) {
+                reportFailure(e);
+                throw e;
+            }
+        } finally {
+            afterWrite(sql);
+        }
+    }
+
+    // Wait for a future and unwrap its SQLException
+    static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the result", e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof SQLException sqlException) throw sqlException;
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new SQLException(cause);
+        }
+    }
+
+    // Prepare and run a call and record its latency, rows and errors
+    private <T> T measure(String sql, StatementCall<T> call, Lease lease, CancellableFuture<T> future) throws SQLException {
+        var start = System.nanoTime();
+        try {
+            var statement = lease.prepare(sql);
+            if (future != null) {
+                future.statement = statement;
+                if (future.isCancelled()) return null;
+            }
+            var result = call.call(statement, lease);
+            metrics.record(sql, System.nanoTime() - start, result);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            metrics.recordError(sql, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> executeAsync(String sql, boolean readOnly, StatementCall<T> call) {
+
+        // Writes queue up behind the SQLite writer instead, cancelling skips a queued write and cancels a running one
+        var future = new CancellableFuture<T>();
+        var writer = this.writer;
+        if (!readOnly && writer != null) {
+            var queued = writer.submit(lease -> {
+                try {
+                    return measure(sql, call, lease, future);
+                } finally {
+                    future.statement = null;
+                }
+            });
+            future.queued = queued;
+            queued.whenComplete((result, e) -> {
+                afterWrite(sql);
+                if (e != null) future.completeExceptionally(e);
+                else future.complete(result);
+            });
+            return future;
+        }
+
+        Scheduler.execute(() -> {
+
+            // Wait for a slot, virtual threads park cheaply
+            try {
+                asyncPermits.acquire();
+            } catch (InterruptedException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            // Execute unless cancelled meanwhile
+            try (var lease = readOnly ? acquireReadOnly() : acquire()) {
+                if (future.isCancelled()) return;
+                try {
+                    T result;
+                    try {
+                        result = measure(sql, call, lease, future);
+                    } finally {
+                        if (!readOnly) afterWrite(sql);
+                    }
+                    if (future.isCancelled()) lease.invalidate();
+                    else future.complete(result);
+                } catch (SQLException e) {
+                    reportFailure(lease, e);
+                    throw e;
+                }
+            } catch (SQLException e) {
+                future.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                future.statement = null;
+                asyncPermits.release();
+            }
+        });
+        return future;
+    }
+
+    // Bind positional parameters
+    static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        if (params == null) return;
+        for (var i = 0; i < params.length; i++) statement.setObject(i + 1, params[i]);
+    }
+
+    private static <T> List<T> map(PreparedStatement statement, RowMapper<T> mapper) throws SQLException {
+        try (var resultSet = statement.executeQuery()) {
+            var rows = new ArrayList<T>();
+            while (resultSet.next()) rows.add(mapper.map(resultSet));
+            return rows;
+        }
+    }
+
+    // Runs in its own transaction unless the lease is inside one run by the driver
+    private static int[] executeBatch(PreparedStatement statement, Lease lease, List<Object[]> rows) throws SQLException {
+        var connection = statement.getConnection();
+        if (lease.isJoined()) {
+            try {
+                for (var row : rows) {
+                    bind(statement, row);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            } catch (SQLException | RuntimeException e) {
+                statement.clearBatch();
+                throw e;
+            }
+        }
+        var autoCommit = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            for (var row : rows) {
+                bind(statement, row);
+                statement.addBatch();
+            }
+            var counts = statement.executeBatch();
+            connection.commit();
+            return counts;
+        } catch (SQLException | RuntimeException e) {
+            statement.clearBatch();
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
         }
     }
 
     // Setters
     public void setAutoReconnect(boolean autoReconnect) {
         this.autoReconnect = autoReconnect;
-        if (autoReconnect) autoReconnect();
+        if (autoReconnect && state.get() == DOWN) scheduleReconnect();
     }
 
     public void setAutoReconnectSettings(int attempts, long delay) {
+        setAutoReconnectSettings(attempts, delay, Math.max(delay, maxReconnectDelay));
+    }
+
+    public void setAutoReconnectSettings(int attempts, long delay, long maxDelay) {
+        if (attempts < 0) throw new IllegalArgumentException("Reconnect attempts cannot be negative");
+        if (delay < 0 || maxDelay < delay) throw new IllegalArgumentException("Reconnect delay cannot be negative or larger than the maximum delay");
         this.reconnectAttempts = attempts;
         this.reconnectDelay = delay;
+        this.maxReconnectDelay = maxDelay;
     }
 
     // Getters
     public boolean isConnected() {
-        try {
-            return connection != null && connection.isValid(0);
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-            return false;
+
+        // Answer from the cached state while it is fresh, the validator refreshes it once per interval
+        if (validationInterval > 0) {
+            var state = this.state.get();
+            if (state == UP && System.currentTimeMillis() - lastValidated < 2 * validationInterval) return true;
+            if (state == DOWN || state == CONNECTING) return false;
         }
+
+        // Stale or degraded, ping the database
+        return validate();
     }
 
-    public Connection getConnection() {
-        return connection;
+    public State getState() {
+        return state.get();
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    public CacheStats getStatementCacheStats() {
+        return statementCacheCounters.snapshot();
+    }
+
+    public CacheStats getResultCacheStats() {
+        return resultCache != null ? resultCache.getStats() : new CacheStats(0, 0, 0);
+    }
+
+    public CoalescingStats getCoalescingStats() {
+        return singleFlight != null ? singleFlight.getStats() : new CoalescingStats(0, 0);
+    }
+
+    public MetricsSnapshot getMetrics() {
+        return metrics.snapshot();
+    }
+
+    // Statement Call Interface
+    @FunctionalInterface
+    private interface StatementCall<T> {
+        T call(PreparedStatement statement, Lease lease) throws SQLException;
+    }
+
+    // Future that cancels the running statement
+    private static final class CancellableFuture<T> extends CompletableFuture<T> {
+
+        // Variables
+        private volatile Statement statement;
+        private volatile CompletableFuture<?> queued;   // Entry in the SQLite writer queue, skipped once cancelled
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            var cancelled = super.cancel(mayInterruptIfRunning);
+            var queued = this.queued;
+            if (cancelled && queued != null) queued.cancel(false);
+            var statement = this.statement;
+            if (cancelled && statement != null) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+            return cancelled;
+        }
+    }
+
+    // Resources held by a row stream
+    private static final class StreamResources {
+
+        // Constants
+        private final Lease lease;
+        private final String sql;
+        private final QueryMetrics metrics;
+        private final long start;
+
+        // Variables
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+        private boolean autoCommit;
+        private boolean closed;
+        private boolean failed;
+        private long nanos;     // Time until the first rows were available
+        private long rows;
+
+        // Constructor
+        private StreamResources(Lease lease, String sql, QueryMetrics metrics) {
+            this.lease = lease;
+            this.sql = sql;
+            this.metrics = metrics;
+            this.start = System.nanoTime();
+        }
+
+        // Release everything, safe to call more than once
+        private synchronized void close() {
+            if (closed) return;
+            closed = true;
+
+            // Record Metrics
+            if (failed) metrics.recordError(sql, System.nanoTime() - start);
+            else metrics.recordRows(sql, nanos, rows);
+
+            try {
+                if (resultSet != null) resultSet.close();
+                if (statement != null) statement.close();
+
+                // End the cursor transaction
+                var connection = lease.connection();
+                if (connection.getAutoCommit() != autoCommit) {
+                    connection.commit();
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+                lease.invalidate();
+            } finally {
+                lease.close();
+            }
+        }
+    }
+
+    // Spliterator over a ResultSet, closes its resources once exhausted
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        // Constants
+        private final StreamResources resources;
+        private final RowMapper<T> mapper;
+
+        // Constructor
+        private RowSpliterator(StreamResources resources, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resources = resources;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (resources.closed) return false;
+            try {
+                if (!resources.resultSet.next()) {
+                    resources.close();
+                    return false;
+                }
+                resources.rows++;
+                action.accept(mapper.map(resources.resultSet));
+                return true;
+            } catch (SQLException e) {
+                resources.failed = true;
+                resources.close();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    // SQLite Profiles, individual pragma settings take precedence
+    public enum SqliteProfile {
+
+        // Constants
+        THROUGHPUT(JournalMode.WAL, Synchronous.NORMAL, 268435456L, -65536L, TempStore.MEMORY, 5000L),     // 256 MiB mmap, 64 MiB cache
+        DURABLE(JournalMode.WAL, Synchronous.FULL, 0L, -16384L, TempStore.DEFAULT, 5000L),                 // fsync on every commit, 16 MiB cache
+        READ_MOSTLY(JournalMode.WAL, Synchronous.NORMAL, 1073741824L, -131072L, TempStore.MEMORY, 5000L);  // 1 GiB mmap, 128 MiB cache
+
+        // Attributes
+        private final JournalMode journalMode;
+        private final Synchronous synchronous;
+        private final Long mmapSize;
+        private final Long cacheSize;
+        private final TempStore tempStore;
+        private final Long busyTimeout;
+
+        // Constructor
+        SqliteProfile(JournalMode journalMode, Synchronous synchronous, Long mmapSize, Long cacheSize, TempStore tempStore, Long busyTimeout) {
+            this.journalMode = journalMode;
+            this.synchronous = synchronous;
+            this.mmapSize = mmapSize;
+            this.cacheSize = cacheSize;
+            this.tempStore = tempStore;
+            this.busyTimeout = busyTimeout;
+        }
+    }
+
+    // Transaction Isolation Enum, SQLite only supports SERIALIZABLE and READ_UNCOMMITTED
+    public enum Isolation {
+        DEFAULT(-1),    // Keep the connection's level
+        READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        // Attributes
+        private final int level;
+
+        // Constructor
+        Isolation(int level) {
+            this.level = level;
+        }
+    }
+
+    // SQLite Pragma Values
+    public enum JournalMode {DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF}
+
+    public enum Synchronous {OFF, NORMAL, FULL, EXTRA}
+
+    public enum TempStore {DEFAULT, FILE, MEMORY}
+
+    // Row Count Mode Enum
+    public enum CountMode {
+        EXACT,          // COUNT(*) on every call
+        CACHED,         // Last exact count, refreshed in the background once stale
+        APPROXIMATE     // Planner statistics, falls back to CACHED if the table has none
+    }
+
+    // Health State Enum
+    public enum State {
+        CONNECTING,     // Pool is being opened
+        UP,             // Last validation succeeded
+        DEGRADED,       // A connection failure was observed, re-validation is pending
+        DOWN            // Not connected or last validation failed
     }
 
     // Database Type Enum
@@ -139,24 +1229,115 @@ public abstract class Driver {
         private final String urlPattern;
         private final String classPath;
 
+        // Variables
+        private volatile Class<?> driverClass;
+
         // Constructor
         DatabaseType(String urlPattern, String classPath) {
 
             // Set attributes
             this.urlPattern = urlPattern;
             this.classPath = classPath;
+        }
 
-            // Register driver
+        // Driver Registration Method, loads the JDBC driver on first use only
+        private Class<?> registerDriver() throws ClassNotFoundException {
+            var driverClass = this.driverClass;
+            if (driverClass != null) return driverClass;
             try {
-                registerDriver();
+                return this.driverClass = Class.forName(classPath);
             } catch (ClassNotFoundException e) {
-                throw new RuntimeException(e);
+                throw new ClassNotFoundException("JDBC driver " + classPath + " for " + name() + " is not on the classpath", e);
             }
         }
 
-        // Driver Registration Method
-        private Class<?> registerDriver() throws ClassNotFoundException {
-            return Class.forName(classPath);
+        // Connection properties enabling the dialect's batch fast path
+        private Properties getProperties() {
+            var properties = new Properties();
+            switch (this) {
+                case MARIADB -> properties.setProperty("useBulkStmts", "true");                     // COM_STMT_BULK_EXECUTE
+                case MYSQL -> {
+                    properties.setProperty("rewriteBatchedStatements", "true");                     // Multi-row VALUES
+                    properties.setProperty("useLocalSessionState", "true");                         // Session state checks on release stay local
+                }
+                case POSTGRESQL -> properties.setProperty("reWriteBatchedInserts", "true");        // Multi-row VALUES
+                case SQLITE -> {}                                                                   // One transaction per batch is enough
+            }
+            return properties;
+        }
+
+        // Per-host connect timeout, PostgreSQL takes seconds
+        private void setConnectTimeout(Properties properties, long connectTimeout) {
+            switch (this) {
+                case MARIADB, MYSQL -> properties.setProperty("connectTimeout", String.valueOf(connectTimeout));
+                case POSTGRESQL -> properties.setProperty("connectTimeout", String.valueOf(Math.max(1, (connectTimeout + 999) / 1000)));
+                case SQLITE -> {}
+            }
+        }
+
+        // Whether the server only accepts reads, e.g. a standby or a demoted primary
+        boolean isReadOnly(Connection connection) throws SQLException {
+            var sql = switch (this) {
+                case POSTGRESQL -> "SHOW transaction_read_only";
+                case MARIADB, MYSQL -> "SELECT @@global.read_only";
+                case SQLITE -> null;
+            };
+            if (sql == null) return false;
+            try (var statement = connection.createStatement(); var resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) return false;
+                var value = resultSet.getString(1);
+                return "on".equalsIgnoreCase(value) || "1".equals(value);
+            }
+        }
+
+        // Whether a failed transaction can simply be run again
+        boolean isRetryable(SQLException exception) {
+            for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+                if (!(cause instanceof SQLException sqlException)) continue;
+                for (var next = sqlException; next != null; next = next.getNextException()) {
+                    var state = next.getSQLState();
+                    if ("40001".equals(state)) return true;    // Serialization failure, also reported for MySQL deadlocks
+                    var retryable = switch (this) {
+                        case POSTGRESQL -> "40P01".equals(state);                               // Deadlock detected
+                        case MARIADB, MYSQL -> next.getErrorCode() == 1213;                     // ER_LOCK_DEADLOCK
+                        case SQLITE -> (next.getErrorCode() & 0xFF) == 5 || (next.getErrorCode() & 0xFF) == 6;    // SQLITE_BUSY, SQLITE_LOCKED
+                    };
+                    if (retryable) return true;
+                }
+            }
+            return false;
+        }
+
+        // Bind parameters a single statement may carry
+        int getMaxParameters() {
+            return switch (this) {
+                case MARIADB, MYSQL -> 65535;
+                case POSTGRESQL -> 32767;
+                case SQLITE -> 32766;   // SQLITE_MAX_VARIABLE_NUMBER since 3.32
+            };
+        }
+
+        // Quote an identifier, schema-qualified names are quoted per part
+        String quote(String identifier) {
+            var quote = this == MARIADB || this == MYSQL ? "`" : "\"";
+            var quoted = new StringBuilder();
+            for (var part : identifier.split("\\.")) {
+                if (!quoted.isEmpty()) quoted.append('.');
+                quoted.append(quote).append(part.replace(quote, quote + quote)).append(quote);
+            }
+            return quoted.toString();
+        }
+
+        // Configure a statement to stream rows instead of buffering the whole result
+        private void configureStreaming(Connection connection, Statement statement, int fetchSize) throws SQLException {
+            switch (this) {
+                case POSTGRESQL -> {
+                    connection.setAutoCommit(false);                // Server-side cursors require a transaction
+                    statement.setFetchSize(fetchSize);
+                }
+                case MYSQL -> statement.setFetchSize(Integer.MIN_VALUE);    // Row by row streaming
+                case MARIADB, SQLITE -> statement.setFetchSize(fetchSize);  // MariaDB fetches in chunks, SQLite steps natively
+            }
         }
 
         // URL Builder Methods
@@ -184,6 +1365,35 @@ public abstract class Driver {
         private String database;
         private String username;
         private String password;
+        private Integer minPoolSize;
+        private Integer maxPoolSize;
+        private Long acquireTimeout;
+        private Long maxLifetime;
+        private Long idleTimeout;
+        private Long validationInterval;
+        private Integer statementCacheSize;
+        private Long statementCacheBytes;
+        private Integer fetchSize;
+        private Boolean metrics;
+        private SqliteProfile sqliteProfile;
+        private JournalMode journalMode;
+        private Synchronous synchronous;
+        private Long mmapSize;
+        private Long cacheSize;
+        private TempStore tempStore;
+        private Long busyTimeout;
+        private Integer readerPoolSize;
+        private Long groupCommitWindow;
+        private Integer groupCommitSize;
+        private Long connectTimeout;
+        private Integer resultCacheSize;
+        private Long resultCacheBytes;
+        private Long resultCacheTtl;
+        private Long rowCountRefresh;
+        private Boolean singleFlight;
+        private Integer transactionRetries;
+        private final List<String[]> failovers = new ArrayList<>();
+        private final List<String[]> replicas = new ArrayList<>();
 
         // Constructor
         private Builder() {
@@ -193,12 +1403,65 @@ public abstract class Driver {
             database = null;
             username = null;
             password = null;
+            minPoolSize = null;
+            maxPoolSize = null;
+            acquireTimeout = null;
+            maxLifetime = null;
+            idleTimeout = null;
+            validationInterval = null;
+            statementCacheSize = null;
+            statementCacheBytes = null;
+            fetchSize = null;
+            metrics = null;
+            sqliteProfile = null;
+            journalMode = null;
+            synchronous = null;
+            mmapSize = null;
+            cacheSize = null;
+            tempStore = null;
+            busyTimeout = null;
+            readerPoolSize = null;
+            groupCommitWindow = null;
+            groupCommitSize = null;
+            connectTimeout = null;
+            resultCacheSize = null;
+            resultCacheBytes = null;
+            resultCacheTtl = null;
+            rowCountRefresh = null;
+            singleFlight = null;
+            transactionRetries = null;
+        }
+
+        // Resolve the SQLite pragmas, busy_timeout first so the journal mode switch can wait for locks
+        private List<String> getPragmas() {
+            var profile = sqliteProfile;
+            var pragmas = new ArrayList<String>();
+            var busyTimeout = this.busyTimeout != null ? this.busyTimeout : profile != null ? profile.busyTimeout : null;
+            var journalMode = this.journalMode != null ? this.journalMode : profile != null ? profile.journalMode : null;
+            var synchronous = this.synchronous != null ? this.synchronous : profile != null ? profile.synchronous : null;
+            var cacheSize = this.cacheSize != null ? this.cacheSize : profile != null ? profile.cacheSize : null;
+            var mmapSize = this.mmapSize != null ? this.mmapSize : profile != null ? profile.mmapSize : null;
+            var tempStore = this.tempStore != null ? this.tempStore : profile != null ? profile.tempStore : null;
+            if (readerPoolSize != null && journalMode == null) journalMode = JournalMode.WAL;
+            if (readerPoolSize != null && journalMode != JournalMode.WAL) throw new IllegalArgumentException("Single-writer mode requires the WAL journal mode");
+            if (busyTimeout != null) pragmas.add("PRAGMA busy_timeout = " + busyTimeout + ";");
+            if (journalMode != null) pragmas.add("PRAGMA journal_mode = " + journalMode + ";");
+            if (synchronous != null) pragmas.add("PRAGMA synchronous = " + synchronous + ";");
+            if (cacheSize != null) pragmas.add("PRAGMA cache_size = " + cacheSize + ";");
+            if (mmapSize != null) pragmas.add("PRAGMA mmap_size = " + mmapSize + ";");
+            if (tempStore != null) pragmas.add("PRAGMA temp_store = " + tempStore + ";");
+            return List.copyOf(pragmas);
+        }
+
+        private void requireSqlite(String setting) {
+            if (databaseType != null && databaseType != SQLITE) throw new IllegalArgumentException(setting + " is only supported for SQLite databases");
         }
 
         // Builder Methods
         public Builder withType(DatabaseType databaseType) {
             if (databaseType == null) throw new IllegalArgumentException("Database type cannot be null");
-            if (databaseType == SQLITE && (host != null || port != null || username != null || password != null)) throw new IllegalArgumentException("Host, Port, Username and Password are not required for SQLite databases");
+            if (databaseType == SQLITE && (host != null || port != null || username != null || password != null || connectTimeout != null || !failovers.isEmpty() || !replicas.isEmpty())) throw new IllegalArgumentException("Host, Port, Username and Password are not required for SQLite databases");
+            if (databaseType != SQLITE && (sqliteProfile != null || journalMode != null || synchronous != null || mmapSize != null || cacheSize != null || tempStore != null || busyTimeout != null || readerPoolSize != null || groupCommitSize != null)) throw new IllegalArgumentException("SQLite pragmas are only supported for SQLite databases");
             this.databaseType = databaseType;
             return this;
         }
@@ -217,6 +1480,32 @@ public abstract class Driver {
             return this;
         }
 
+        // Failover host for the primary, repeatable. connect() picks whichever host is writable
+        public Builder withFailoverHost(String host, Integer port) {
+            if (databaseType == SQLITE) throw new IllegalArgumentException("Failover hosts are not supported for SQLite databases");
+            if (host == null || host.isBlank()) throw new IllegalArgumentException("Host cannot be null or blank");
+            if (port == null || port < 1 || port > 65535) throw new IllegalArgumentException("Port must be between 1 and 65535");
+            failovers.add(new String[] {host, String.valueOf(port)});
+            return this;
+        }
+
+        // Per-host connect timeout in ms, keeps a dead host from stalling failover
+        public Builder withConnectTimeout(long connectTimeout) {
+            if (databaseType == SQLITE) throw new IllegalArgumentException("Connect timeout is not supported for SQLite databases");
+            if (connectTimeout < 0) throw new IllegalArgumentException("Connect timeout cannot be negative");
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        // Read replica, repeatable. query, queryAsync, stream and acquireReadOnly() read from replicas, everything else, queryCached misses included, uses the primary
+        public Builder withReplica(String host, Integer port) {
+            if (databaseType == SQLITE) throw new IllegalArgumentException("Replicas are not supported for SQLite databases");
+            if (host == null || host.isBlank()) throw new IllegalArgumentException("Host cannot be null or blank");
+            if (port == null || port < 1 || port > 65535) throw new IllegalArgumentException("Port must be between 1 and 65535");
+            replicas.add(new String[] {host, String.valueOf(port)});
+            return this;
+        }
+
         public Builder withDatabase(String database) {
             if (database == null || database.isBlank()) throw new IllegalArgumentException("Database cannot be null or blank");
             this.database = database;
@@ -236,5 +1525,158 @@ public abstract class Driver {
             this.password = password;
             return this;
         }
+
+        public Builder withPoolSize(int minSize, int maxSize) {
+            if (minSize < 0) throw new IllegalArgumentException("Minimum pool size cannot be negative");
+            if (maxSize < 1 || maxSize < minSize) throw new IllegalArgumentException("Maximum pool size must be at least 1 and not smaller than the minimum pool size");
+            this.minPoolSize = minSize;
+            this.maxPoolSize = maxSize;
+            return this;
+        }
+
+        public Builder withAcquireTimeout(long acquireTimeout) {
+            if (acquireTimeout < 0) throw new IllegalArgumentException("Acquire timeout cannot be negative");
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        public Builder withMaxLifetime(long maxLifetime) {
+            if (maxLifetime < 0) throw new IllegalArgumentException("Max lifetime cannot be negative");
+            this.maxLifetime = maxLifetime;
+            return this;
+        }
+
+        public Builder withIdleTimeout(long idleTimeout) {
+            if (idleTimeout < 0) throw new IllegalArgumentException("Idle timeout cannot be negative");
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder withValidationInterval(long validationInterval) {
+            if (validationInterval < 0) throw new IllegalArgumentException("Validation interval cannot be negative");
+            this.validationInterval = validationInterval;
+            return this;
+        }
+
+        public Builder withStatementCache(int maxStatements, long maxBytes) {
+            if (maxStatements < 0) throw new IllegalArgumentException("Statement cache size cannot be negative");
+            if (maxBytes < 1) throw new IllegalArgumentException("Statement cache memory must be positive");
+            this.statementCacheSize = maxStatements;
+            this.statementCacheBytes = maxBytes;
+            return this;
+        }
+
+        public Builder withFetchSize(int fetchSize) {
+            if (fetchSize < 1) throw new IllegalArgumentException("Fetch size must be positive");
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        public Builder withMetrics(boolean metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        // Cache results of queryCached(), ttl in ms with 0 = until a write to one of the read tables
+        public Builder withResultCache(int maxEntries, long maxBytes, long ttl) {
+            if (maxEntries < 1) throw new IllegalArgumentException("Result cache must hold at least 1 entry");
+            if (maxBytes < 1) throw new IllegalArgumentException("Result cache size must be at least 1 byte");
+            if (ttl < 0) throw new IllegalArgumentException("Result cache TTL cannot be negative");
+            this.resultCacheSize = maxEntries;
+            this.resultCacheBytes = maxBytes;
+            this.resultCacheTtl = ttl;
+            return this;
+        }
+
+        // Retries of inTransaction() after a deadlock, serialization failure or busy database
+        public Builder withTransactionRetries(int retries) {
+            if (retries < 0) throw new IllegalArgumentException("Transaction retries cannot be negative");
+            this.transactionRetries = retries;
+            return this;
+        }
+
+        // Coalesce identical concurrent query() calls into one execution
+        public Builder withSingleFlight(boolean singleFlight) {
+            this.singleFlight = singleFlight;
+            return this;
+        }
+
+        // Age in ms after which a CACHED row count is refreshed in the background
+        public Builder withRowCountRefresh(long refreshInterval) {
+            if (refreshInterval < 0) throw new IllegalArgumentException("Row count refresh interval cannot be negative");
+            this.rowCountRefresh = refreshInterval;
+            return this;
+        }
+
+        public Builder withSqliteProfile(SqliteProfile profile) {
+            requireSqlite("SQLite profile");
+            if (profile == null) throw new IllegalArgumentException("SQLite profile cannot be null");
+            this.sqliteProfile = profile;
+            return this;
+        }
+
+        public Builder withJournalMode(JournalMode journalMode) {
+            requireSqlite("Journal mode");
+            if (journalMode == null) throw new IllegalArgumentException("Journal mode cannot be null");
+            this.journalMode = journalMode;
+            return this;
+        }
+
+        public Builder withSynchronous(Synchronous synchronous) {
+            requireSqlite("Synchronous");
+            if (synchronous == null) throw new IllegalArgumentException("Synchronous cannot be null");
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        public Builder withMmapSize(long mmapSize) {
+            requireSqlite("Memory map size");
+            if (mmapSize < 0) throw new IllegalArgumentException("Memory map size cannot be negative");
+            this.mmapSize = mmapSize;
+            return this;
+        }
+
+        // Positive values are pages, negative values are KiB like in SQLite
+        public Builder withCacheSize(long cacheSize) {
+            requireSqlite("Cache size");
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Builder withTempStore(TempStore tempStore) {
+            requireSqlite("Temp store");
+            if (tempStore == null) throw new IllegalArgumentException("Temp store cannot be null");
+            this.tempStore = tempStore;
+            return this;
+        }
+
+        public Builder withBusyTimeout(long busyTimeout) {
+            requireSqlite("Busy timeout");
+            if (busyTimeout < 0) throw new IllegalArgumentException("Busy timeout cannot be negative");
+            this.busyTimeout = busyTimeout;
+            return this;
+        }
+
+        // Queue all writes on one writer connection and read through a pool of read-only WAL connections
+        public Builder withSingleWriter() {
+            return withSingleWriter(Runtime.getRuntime().availableProcessors());
+        }
+
+        public Builder withSingleWriter(int readers) {
+            requireSqlite("Single-writer mode");
+            if (readers < 1) throw new IllegalArgumentException("Reader pool size must be positive");
+            this.readerPoolSize = readers;
+            return this;
+        }
+
+        // Coalesce writes queued within the window into one transaction, write(Work) tasks must not commit themselves
+        public Builder withGroupCommit(long window, int maxStatements) {
+            requireSqlite("Group commit");
+            if (window < 0) throw new IllegalArgumentException("Group commit window cannot be negative");
+            if (maxStatements < 2) throw new IllegalArgumentException("Group commit needs at least 2 statements per transaction");
+            this.groupCommitWindow = window;
+            this.groupCommitSize = maxStatements;
+            return this;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package de.MCmoderSD.sql;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits the range between the minimum and maximum of a numeric or time key into equally wide partitions
+final class KeyRange {
+
+    // Constructor
+    private KeyRange() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // Partition boundaries from min to max, partition i covers [i, i + 1) and the last one includes max
+    static List<Object> split(Object min, Object max, int partitions) {
+        var boundaries = new ArrayList<Object>(partitions + 1);
+
+        // Integral Keys
+        if (min instanceof Long || min instanceof Integer || min instanceof Short || min instanceof Byte || min instanceof BigInteger) {
+            var low = new BigInteger(min.toString());
+            var values = new BigInteger(max.toString()).subtract(low).add(BigInteger.ONE);
+            var count = BigInteger.valueOf(partitions).min(values);   // No empty partitions
+            for (var i = 0L; i < count.longValue(); i++) boundaries.add(low.add(values.multiply(BigInteger.valueOf(i)).divide(count)).longValue());
+            boundaries.add(((Number) max).longValue());
+            return boundaries;
+        }
+
+        // Decimal Keys
+        if (min instanceof Double || min instanceof Float || min instanceof BigDecimal) {
+            var low = new BigDecimal(min.toString());
+            var width = new BigDecimal(max.toString()).subtract(low);
+            var count = width.signum() == 0 ? 1 : partitions;
+            for (var i = 0; i < count; i++) {
+                var boundary = low.add(width.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64));
+                boundaries.add(min instanceof BigDecimal ? boundary : (Object) boundary.doubleValue());
+            }
+            boundaries.add(max);
+            return boundaries;
+        }
+
+        // Time keys are split on their epoch microseconds and converted back to the key's type
+        var micros = split(toMicros(min), toMicros(max), partitions);
+        for (var i = 0; i < micros.size() - 1; i++) boundaries.add(fromMicros((Long) micros.get(i), min));
+        boundaries.add(max);
+        return boundaries;
+    }
+
+    private static long toMicros(Object value) {
+        return switch (value) {
+            case Timestamp timestamp -> ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant());
+            case Date date -> date.toLocalDate().toEpochDay() * 86400000000L;
+            case LocalDate date -> date.toEpochDay() * 86400000000L;
+            case LocalDateTime dateTime -> ChronoUnit.MICROS.between(Instant.EPOCH, dateTime.toInstant(ZoneOffset.UTC));
+            case OffsetDateTime dateTime -> ChronoUnit.MICROS.between(Instant.EPOCH, dateTime.toInstant());
+            case Instant instant -> ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+            default -> throw new IllegalArgumentException("Key type " + value.getClass().getName() + " cannot be partitioned, use a numeric or time key");
+        };
+    }
+
+    private static Object fromMicros(long micros, Object template) {
+        var instant = Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+        return switch (template) {
+            case Timestamp ignored -> Timestamp.from(instant);
+            case Date ignored -> Date.valueOf(LocalDate.ofEpochDay(Math.floorDiv(micros, 86400000000L)));
+            case LocalDate ignored -> LocalDate.ofEpochDay(Math.floorDiv(micros, 86400000000L));
+            case LocalDateTime ignored -> LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+            case OffsetDateTime dateTime -> OffsetDateTime.ofInstant(instant, dateTime.getOffset());
+            default -> instant;
+        };
+    }
+}
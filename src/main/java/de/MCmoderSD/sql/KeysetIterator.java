@@ -0,0 +1,137 @@
+package de.MCmoderSD.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static de.MCmoderSD.sql.Driver.DatabaseType.*;
+
+// Walks a table in key order one page at a time, each page seeks past the last key instead of using OFFSET
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class KeysetIterator<T> implements Iterator<T>, AutoCloseable {
+
+    // Constants
+    private final Driver driver;
+    private final List<String> keyColumns;
+    private final int pageSize;
+    private final RowMapper<T> mapper;
+    private final RowMapper<Row<T>> rowMapper;  // One instance, a method reference creates a new one on every use
+    private final boolean prefetch;
+    private final boolean rowValues;    // Seek by row value comparison, otherwise the expanded form
+    private final String firstQuery;
+    private final String nextQuery;
+
+    // Variables
+    private List<Row<T>> page;
+    private int index;
+    private CompletableFuture<List<Row<T>>> next;   // Prefetched page
+    private boolean closed;
+
+    // Constructor
+    KeysetIterator(Driver driver, Driver.DatabaseType databaseType, String table, List<String> keyColumns, int pageSize, RowMapper<T> mapper, boolean prefetch) {
+
+        // Check Parameters
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (keyColumns == null || keyColumns.isEmpty()) throw new IllegalArgumentException("Key columns cannot be null or empty");
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+        if (mapper == null) throw new IllegalArgumentException("Mapper cannot be null");
+
+        // Set Constants
+        this.driver = driver;
+        this.keyColumns = List.copyOf(keyColumns);
+        this.pageSize = pageSize;
+        this.mapper = mapper;
+        this.rowMapper = this::map;
+        this.prefetch = prefetch;
+        this.rowValues = databaseType == POSTGRESQL || databaseType == SQLITE;
+
+        // Build Queries
+        var select = "SELECT * FROM " + databaseType.quote(table);
+        var order = new StringBuilder(" ORDER BY ");
+        for (var i = 0; i < keyColumns.size(); i++) order.append(i == 0 ? "" : ", ").append(databaseType.quote(keyColumns.get(i)));
+        order.append(" LIMIT ").append(pageSize);
+        this.firstQuery = select + order;
+        this.nextQuery = select + " WHERE " + seek(databaseType, this.keyColumns, rowValues) + order;
+    }
+
+    // (a, b) > (?, ?) where row values are optimized, expanded to a > ? OR (a = ? AND b > ?) on MySQL and MariaDB
+    private static String seek(Driver.DatabaseType databaseType, List<String> keyColumns, boolean rowValues) {
+        var columns = new ArrayList<String>(keyColumns.size());
+        for (var column : keyColumns) columns.add(databaseType.quote(column));
+        if (columns.size() == 1) return columns.getFirst() + " > ?";
+        if (rowValues) return "(" + String.join(", ", columns) + ") > (" + "?, ".repeat(columns.size() - 1) + "?)";
+        var seek = new StringBuilder();
+        for (var i = 0; i < columns.size(); i++) {
+            seek.append(i == 0 ? "(" : " OR (");
+            for (var j = 0; j < i; j++) seek.append(columns.get(j)).append(" = ? AND ");
+            seek.append(columns.get(i)).append(" > ?)");
+        }
+        return "(" + seek + ")";
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) return false;
+        if (page != null && index < page.size()) return true;
+
+        // The last page was short, nothing left
+        if (page != null && page.size() < pageSize) return false;
+        try {
+            page = next != null ? Driver.await(next) : load(page);
+            next = null;
+            index = 0;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+
+        // Fetch the following page while the caller works through this one
+        if (prefetch && page.size() == pageSize) next = loadAsync(page);
+        return !page.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return page.get(index++).value;
+    }
+
+    // Stop iterating and drop a prefetched page
+    @Override
+    public void close() {
+        closed = true;
+        var next = this.next;
+        if (next != null) next.cancel(true);
+        this.next = null;
+    }
+
+    private List<Row<T>> load(List<Row<T>> previous) throws SQLException {
+        return previous == null ? driver.query(firstQuery, rowMapper) : driver.query(nextQuery, rowMapper, parameters(previous));
+    }
+
+    private CompletableFuture<List<Row<T>>> loadAsync(List<Row<T>> previous) {
+        return driver.queryAsync(nextQuery, rowMapper, parameters(previous));
+    }
+
+    private Row<T> map(ResultSet resultSet) throws SQLException {
+        var key = new Object[keyColumns.size()];
+        for (var i = 0; i < key.length; i++) key[i] = resultSet.getObject(keyColumns.get(i));
+        return new Row<>(key, mapper.map(resultSet));
+    }
+
+    // Seek parameters from the last key of the page, repeated for the expanded form
+    private Object[] parameters(List<Row<T>> previous) {
+        var key = previous.getLast().key;
+        if (key.length == 1 || rowValues) return key;
+        var parameters = new ArrayList<>();
+        for (var i = 0; i < key.length; i++) for (var j = 0; j <= i; j++) parameters.add(key[j]);
+        return parameters.toArray();
+    }
+
+    // Mapped Row with its Key
+    private record Row<T>(Object[] key, T value) {
+    }
+}
@@ -0,0 +1,75 @@
+package de.MCmoderSD.sql;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear histogram of nanosecond values, lock-free and allocation-free on record
+final class LatencyHistogram {
+
+    // Constants
+    private static final int SUB_BITS = 3;                              // 8 sub-buckets per power of two, ~12.5% precision
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    // Attributes
+    private final AtomicLongArray counts;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    // Constructor
+    LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+        if (value > max.get()) max.accumulateAndGet(value, Math::max);
+    }
+
+    // Copy the buckets and compute the percentiles
+    MetricsSnapshot.Histogram snapshot() {
+        var copy = new long[BUCKETS];
+        var count = 0L;
+        for (var i = 0; i < BUCKETS; i++) count += copy[i] = counts.get(i);
+        if (count == 0) return new MetricsSnapshot.Histogram(0, 0, 0, 0, 0, 0, 0);
+        return new MetricsSnapshot.Histogram(
+                count,
+                (double) sum.sum() / count,
+                percentile(copy, count, 0.50),
+                percentile(copy, count, 0.90),
+                percentile(copy, count, 0.99),
+                percentile(copy, count, 0.999),
+                max.get()
+        );
+    }
+
+    // Highest value equivalent to the bucket holding the percentile
+    private long percentile(long[] counts, long count, double percentile) {
+        var rank = (long) Math.ceil(percentile * count);
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        var exponent = 63 - Long.numberOfLeadingZeros(value);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) | (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        var exponent = (index >> SUB_BITS) + SUB_BITS - 1;
+        var width = 1L << (exponent - SUB_BITS);
+        var lower = (1L << exponent) | ((long) (index & (SUB_BUCKETS - 1)) << (exponent - SUB_BITS));
+        return lower + width - 1;
+    }
+}
@@ -0,0 +1,27 @@
+package de.MCmoderSD.sql;
+
+import java.util.Map;
+
+// Point-in-time copy of a Driver's query metrics, latencies are in nanoseconds
+public record MetricsSnapshot(Histogram acquireWait, Map<String, StatementStats> statements, TransactionStats transactions) {
+
+    // Latency Distribution
+    public record Histogram(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    // Metrics per SQL statement
+    public record StatementStats(long errors, long rows, Histogram latency) {
+
+        public long executions() {
+            return latency.count();
+        }
+    }
+
+    // Outcomes of inTransaction(), retries count every attempt after the first
+    public record TransactionStats(long commits, long retries, long failures) {
+
+        public double retriesPerCommit() {
+            return commits == 0 ? 0 : (double) retries / commits;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package de.MCmoderSD.sql;
+
+import de.MCmoderSD.sql.ConnectionPool.Lease;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyOut;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Bulk load and export through PostgreSQL COPY in CSV format
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class PgCopy {
+
+    // Constants
+    private static final int BUFFER_SIZE = 65536;   // Bytes sent per CopyData chunk
+
+    // Attributes
+    private final Driver driver;
+    private final Driver.DatabaseType databaseType;
+
+    // Constructor
+    PgCopy(Driver driver, Driver.DatabaseType databaseType) {
+        this.driver = driver;
+        this.databaseType = databaseType;
+    }
+
+    // Stream rows into COPY ... FROM STDIN, rows are pulled only as fast as the server accepts them
+    public long copyIn(String table, List<String> columns, Stream<Object[]> rows) throws SQLException {
+        return copyIn(table, columns, rows.iterator());
+    }
+
+    public long copyIn(String table, List<String> columns, Iterator<Object[]> rows) throws SQLException {
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (columns == null || columns.isEmpty()) throw new IllegalArgumentException("Columns cannot be null or empty");
+
+        // Build COPY Statement
+        var sql = new StringBuilder("COPY ").append(databaseType.quote(table)).append(" (");
+        for (var i = 0; i < columns.size(); i++) sql.append(i == 0 ? "" : ", ").append(databaseType.quote(columns.get(i)));
+        sql.append(") FROM STDIN WITH (FORMAT csv)");
+
+        try (var lease = driver.acquire()) {
+            var copyIn = copyManager(lease).copyIn(sql.toString());
+            try {
+
+                // Encode rows into a bounded buffer and flush it whenever it fills up
+                var buffer = new byte[BUFFER_SIZE];
+                var length = 0;
+                var line = new StringBuilder();
+                while (rows.hasNext()) {
+                    var row = rows.next();
+                    if (row.length != columns.size()) throw new IllegalArgumentException("Row has " + row.length + " values but " + columns.size() + " columns were given");
+                    line.setLength(0);
+                    CopyCsv.encode(row, line);
+                    var bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    if (length + bytes.length > buffer.length) {
+                        copyIn.writeToCopy(buffer, 0, length);
+                        length = 0;
+                    }
+                    if (bytes.length > buffer.length) copyIn.writeToCopy(bytes, 0, bytes.length);
+                    else {
+                        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+                        length += bytes.length;
+                    }
+                }
+                if (length > 0) copyIn.writeToCopy(buffer, 0, length);
+                return copyIn.endCopy();
+            } catch (SQLException | RuntimeException e) {
+                cancel(copyIn, lease);
+                throw e;
+            }
+        } finally {
+            driver.invalidateResultCache(table);
+        }
+    }
+
+    // Stream the rows of a query from COPY ... TO STDOUT, NULL columns are mapped to null
+    public Stream<String[]> copyOut(String query) throws SQLException {
+        return copyOut(query, Function.identity());
+    }
+
+    public <T> Stream<T> copyOut(String query, Function<String[], T> mapper) throws SQLException {
+        if (query == null || query.isBlank()) throw new IllegalArgumentException("Query cannot be null or blank");
+        var lease = driver.acquire();
+        try {
+            var copyOut = copyManager(lease).copyOut("COPY (" + query + ") TO STDOUT WITH (FORMAT csv)");
+            var spliterator = new RowSpliterator<>(copyOut, lease, mapper);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (SQLException | RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    private static org.postgresql.copy.CopyManager copyManager(Lease lease) throws SQLException {
+        return lease.connection().unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static void cancel(org.postgresql.copy.CopyOperation operation, Lease lease) {
+        try {
+            if (operation.isActive()) operation.cancelCopy();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            lease.invalidate();
+        }
+    }
+
+    // Pulls one CopyData message per row, the server only sends as fast as rows are consumed
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        // Constants
+        private final CopyOut copyOut;
+        private final Lease lease;
+        private final Function<String[], T> mapper;
+
+        // Variables
+        private boolean closed;
+
+        // Constructor
+        private RowSpliterator(CopyOut copyOut, Lease lease, Function<String[], T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.copyOut = copyOut;
+            this.lease = lease;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) return false;
+            try {
+                var row = copyOut.readFromCopy();
+                if (row == null) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.apply(CopyCsv.decode(new String(row, StandardCharsets.UTF_8))));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException(e);
+            }
+        }
+
+        // Cancel an unfinished COPY and return the connection
+        private void close() {
+            if (closed) return;
+            closed = true;
+            cancel(copyOut, lease);
+            lease.close();
+        }
+    }
+}
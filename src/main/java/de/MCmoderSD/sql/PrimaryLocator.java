@@ -0,0 +1,116 @@
+package de.MCmoderSD.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Finds the writable primary among several hosts, racing connection attempts happy-eyeballs style
+final class PrimaryLocator {
+
+    // Constants
+    private static final long ATTEMPT_DELAY = 250;  // ms head start per attempt before the next host is tried
+
+    // Attributes
+    private final List<String> urls;
+    private final Opener opener;
+    private final Driver.DatabaseType databaseType;
+
+    // Variables
+    private volatile int primary;   // Index of the last known good primary
+
+    // Constructor
+    PrimaryLocator(List<String> urls, Opener opener, Driver.DatabaseType databaseType) {
+        this.urls = urls;
+        this.opener = opener;
+        this.databaseType = databaseType;
+    }
+
+    // Start with the last known good primary, then try the next host every ATTEMPT_DELAY or as soon as an attempt fails
+    // Returns the winner's open connection for the pool to keep, null with a single host that needs no race
+    Connection locate() throws SQLException {
+        if (urls.size() == 1) return null;
+        var race = new Race(primary);
+        race.launch();
+        var winner = Driver.await(race.winner);
+        primary = winner.index;
+        return winner.connection;
+    }
+
+    // Getters
+    String getPrimary() {
+        return urls.get(primary);
+    }
+
+    boolean isMultiHost() {
+        return urls.size() > 1;
+    }
+
+    // Connection Opener Interface
+    @FunctionalInterface
+    interface Opener {
+        Connection open(String url) throws SQLException;
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // Writable host and its open connection
+    private record Winner(int index, Connection connection) {}
+
+    // One round of connection attempts
+    private final class Race {
+
+        // Constants
+        private final int first;
+
+        // Attributes
+        private final CompletableFuture<Winner> winner;
+        private final AtomicInteger next;
+        private final AtomicInteger pending;
+        private final AtomicReference<SQLException> error;
+
+        // Constructor
+        private Race(int first) {
+            this.first = first;
+            winner = new CompletableFuture<>();
+            next = new AtomicInteger();
+            pending = new AtomicInteger(urls.size());
+            error = new AtomicReference<>();
+        }
+
+        // Start the next attempt if no host has won yet
+        private void launch() {
+            if (winner.isDone()) return;
+            var attempt = next.getAndIncrement();
+            if (attempt >= urls.size()) return;
+            var index = (first + attempt) % urls.size();
+            Scheduler.execute(() -> attempt(index));
+            if (attempt + 1 < urls.size()) Scheduler.schedule(this::launch, ATTEMPT_DELAY);
+        }
+
+        // The first writable host hands its connection over, later ones close theirs
+        private void attempt(int index) {
+            Connection connection = null;
+            try {
+                connection = opener.open(urls.get(index));
+                if (databaseType.isReadOnly(connection)) throw new SQLException("Host is read-only: " + urls.get(index), "25006");
+                if (winner.complete(new Winner(index, connection))) connection = null;
+            } catch (SQLException e) {
+                error.set(e);
+                launch();
+            } finally {
+                close(connection);
+                if (pending.decrementAndGet() == 0) winner.completeExceptionally(new SQLException("No writable primary among " + urls.size() + " hosts", "08001", error.get()));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package de.MCmoderSD.sql;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Identity of a read, the SQL text, the bound parameters, the mapper producing the rows and whether it must read the primary
+// Mappers compare by instance, lambdas of one class may still capture different state
+record QueryKey(String sql, List<Object> params, RowMapper<?> mapper, boolean primary) {
+
+    static QueryKey of(String sql, RowMapper<?> mapper, Object... params) {
+        if (params == null || params.length == 0) return new QueryKey(sql, List.of(), mapper, false);
+        return new QueryKey(sql, values(params), mapper, false);
+    }
+
+    // Same read served by the primary, it must not share a replica's result
+    QueryKey onPrimary() {
+        return new QueryKey(sql, params, mapper, true);
+    }
+
+    // Arrays compare by identity, byte arrays are copied into buffers and object arrays into lists that compare by content
+    private static List<Object> values(Object[] params) {
+        var values = new Object[params.length];
+        for (var i = 0; i < params.length; i++) {
+            values[i] = switch (params[i]) {
+                case byte[] bytes -> ByteBuffer.wrap(bytes.clone());
+                case Object[] array -> new ArrayValue(array.getClass(), values(array));
+                case null, default -> params[i];
+            };
+        }
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    // Estimated heap size of the key
+    long size() {
+        return 64 + 2L * sql.length() + size(params);
+    }
+
+    private static long size(List<Object> values) {
+        var size = 16L + 4L * values.size();
+        for (var value : values) {
+            size += switch (value) {
+                case ByteBuffer buffer -> 16 + buffer.capacity();
+                case ArrayValue array -> size(array.values);
+                case null, default -> Sizes.of(value);
+            };
+        }
+        return size;
+    }
+
+    // Object array parameter, the array type is kept since it decides the bound SQL type
+    private record ArrayValue(Class<?> type, List<Object> values) {}
+}
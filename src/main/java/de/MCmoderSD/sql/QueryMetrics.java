@@ -0,0 +1,108 @@
+package de.MCmoderSD.sql;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-statement latency, row and error counters keyed by the SQL text
+final class QueryMetrics {
+
+    // Constants
+    private static final int MAX_STATEMENTS = 1000;     // Further statements are folded into OTHER
+    private static final String OTHER = "<other>";
+
+    // Attributes
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Entry> statements;
+    private final LatencyHistogram acquireWait;
+    private final LongAdder commits;
+    private final LongAdder retries;
+    private final LongAdder failures;
+
+    // Constructor
+    QueryMetrics(boolean enabled) {
+        this.enabled = enabled;
+        statements = new ConcurrentHashMap<>();
+        acquireWait = new LatencyHistogram();
+        commits = new LongAdder();
+        retries = new LongAdder();
+        failures = new LongAdder();
+    }
+
+    void record(String sql, long nanos, Object result) {
+        if (!enabled) return;
+        var entry = entry(sql);
+        entry.latency.record(nanos);
+        var rows = rows(result);
+        if (rows > 0) entry.rows.add(rows);
+    }
+
+    void recordRows(String sql, long nanos, long rows) {
+        if (!enabled) return;
+        var entry = entry(sql);
+        entry.latency.record(nanos);
+        if (rows > 0) entry.rows.add(rows);
+    }
+
+    void recordError(String sql, long nanos) {
+        if (!enabled) return;
+        var entry = entry(sql);
+        entry.latency.record(nanos);
+        entry.errors.increment();
+    }
+
+    void recordAcquire(long nanos) {
+        if (enabled) acquireWait.record(nanos);
+    }
+
+    // Transaction Outcomes
+    void recordCommit() {
+        if (enabled) commits.increment();
+    }
+
+    void recordRetry() {
+        if (enabled) retries.increment();
+    }
+
+    void recordFailure() {
+        if (enabled) failures.increment();
+    }
+
+    MetricsSnapshot snapshot() {
+        var snapshot = new HashMap<String, MetricsSnapshot.StatementStats>();
+        statements.forEach((sql, entry) -> snapshot.put(sql, new MetricsSnapshot.StatementStats(entry.errors.sum(), entry.rows.sum(), entry.latency.snapshot())));
+        var transactions = new MetricsSnapshot.TransactionStats(commits.sum(), retries.sum(), failures.sum());
+        return new MetricsSnapshot(acquireWait.snapshot(), Map.copyOf(snapshot), transactions);
+    }
+
+    // Lookups of known statements do not allocate
+    private Entry entry(String sql) {
+        var entry = statements.get(sql);
+        if (entry != null) return entry;
+        if (statements.size() >= MAX_STATEMENTS) sql = OTHER;
+        return statements.computeIfAbsent(sql, key -> new Entry());
+    }
+
+    // Rows returned or affected by a result
+    private static long rows(Object result) {
+        return switch (result) {
+            case List<?> list -> list.size();
+            case Integer count -> count;
+            case int[] counts -> {
+                var sum = 0L;
+                for (var count : counts) if (count > 0) sum += count;
+                yield sum;
+            }
+            case null, default -> 0;
+        };
+    }
+
+    // Counters for one statement
+    private static final class Entry {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
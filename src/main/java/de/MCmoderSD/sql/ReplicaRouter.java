@@ -0,0 +1,99 @@
+package de.MCmoderSD.sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Picks a read replica by power-of-two-choices on outstanding leases, skipping ejected replicas
+final class ReplicaRouter {
+
+    // Constants
+    private static final long BASE_EJECTION = 1000;     // ms, doubles per consecutive failure
+    private static final long MAX_EJECTION = 60000;     // ms
+
+    // Attributes
+    private final Replica[] replicas;
+
+    // Constructor
+    ReplicaRouter(List<Replica> replicas) {
+        this.replicas = replicas.toArray(Replica[]::new);
+    }
+
+    // Least loaded of two random healthy replicas, null if none is healthy
+    Replica choose() {
+        var now = System.currentTimeMillis();
+        var random = ThreadLocalRandom.current();
+        var first = replicas[random.nextInt(replicas.length)];
+        var second = replicas[random.nextInt(replicas.length)];
+        var firstHealthy = first.isHealthy(now);
+        var secondHealthy = second.isHealthy(now);
+        if (firstHealthy && secondHealthy) return first.pool.getLeased() <= second.pool.getLeased() ? first : second;
+        if (firstHealthy) return first;
+        if (secondHealthy) return second;
+
+        // Both samples ejected, fall back to a scan
+        Replica best = null;
+        for (var replica : replicas) if (replica.isHealthy(now) && (best == null || replica.pool.getLeased() < best.pool.getLeased())) best = replica;
+        return best;
+    }
+
+    // Other healthy replicas, least loaded first
+    List<Replica> alternatives(Replica chosen) {
+        var now = System.currentTimeMillis();
+        var alternatives = new ArrayList<Replica>(replicas.length - 1);
+        for (var replica : replicas) if (replica != chosen && replica.isHealthy(now)) alternatives.add(replica);
+        alternatives.sort(Comparator.comparingInt(replica -> replica.pool.getLeased()));
+        return alternatives;
+    }
+
+    // Find the replica owning a pool
+    Replica find(ConnectionPool pool) {
+        for (var replica : replicas) if (replica.pool == pool) return replica;
+        return null;
+    }
+
+    void close() {
+        for (var replica : replicas) replica.pool.close();
+    }
+
+    // Replica Class
+    static final class Replica {
+
+        // Constants
+        private final String host;
+        private final int port;
+        private final ConnectionPool pool;
+
+        // Variables
+        private volatile long ejectedUntil;
+        private volatile int failures;
+
+        // Constructor
+        Replica(String host, int port, ConnectionPool pool) {
+            this.host = host;
+            this.port = port;
+            this.pool = pool;
+        }
+
+        // Take the replica out of rotation, it gets another chance once the ejection expires
+        void eject() {
+            var failures = this.failures = Math.min(this.failures + 1, 16);
+            ejectedUntil = System.currentTimeMillis() + Math.min(MAX_EJECTION, BASE_EJECTION << (failures - 1));
+            System.err.println("Ejected replica " + host + ":" + port);
+        }
+
+        void succeeded() {
+            if (failures != 0) failures = 0;
+        }
+
+        private boolean isHealthy(long now) {
+            return pool.isOpen() && now >= ejectedUntil;
+        }
+
+        // Getters
+        ConnectionPool pool() {
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package de.MCmoderSD.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.DOTALL;
+
+// Query result cache with TTL and W-TinyLFU admission, entries are tagged with the tables they read
+final class ResultCache {
+
+    // Constants
+    private static final String ANY_TABLE = "*";    // Tag of reads whose tables could not be parsed
+    private static final String PART = "`[^`]+`|\"[^\"]+\"|\\[[^\\]]+]|[\\w$]+";
+    private static final String IDENTIFIER = "(?:" + PART + ")(?:\\s*\\.\\s*(?:" + PART + "))*";
+    private static final Pattern IDENTIFIER_PART = Pattern.compile(PART);
+    private static final Pattern WRITE_TABLE = Pattern.compile("^\\s*(?:INSERT|REPLACE|UPDATE|DELETE|TRUNCATE|MERGE)\\b(?:\\s+(?:LOW_PRIORITY|DELAYED|HIGH_PRIORITY|QUICK|IGNORE|ONLY|OR\\s+\\w+|INTO|FROM|TABLE))*\\s+(" + IDENTIFIER + ")", CASE_INSENSITIVE);
+    private static final Pattern MULTI_TABLE = Pattern.compile("\\bJOIN\\b|^\\s*WITH\\b", CASE_INSENSITIVE);
+    private static final Pattern FROM_CLAUSE = Pattern.compile("\\bFROM\\s+(.+?)(?=\\b(?:WHERE|GROUP|ORDER|LIMIT|HAVING|UNION|INTERSECT|EXCEPT|JOIN|INNER|LEFT|RIGHT|FULL|CROSS|NATURAL|WINDOW|OFFSET|FETCH|FOR|ON|USING)\\b|[);]|$)", CASE_INSENSITIVE | DOTALL);
+    private static final Pattern JOIN_TABLE = Pattern.compile("\\bJOIN\\s+(" + IDENTIFIER + ")", CASE_INSENSITIVE);
+    private static final Pattern LEADING_TABLE = Pattern.compile("^\\s*(" + IDENTIFIER + ")");
+
+    // Attributes
+    private final int windowSize;   // Admission window, about 1% of the entries
+    private final int mainSize;
+    private final long maxBytes;
+    private final long ttl;         // ms, 0 = no expiry
+    private final LinkedHashMap<QueryKey, Entry> window;
+    private final LinkedHashMap<QueryKey, Entry> main;
+    private final HashMap<String, Set<QueryKey>> tags;
+    private final FrequencySketch sketch;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    // Variables
+    private long bytes;
+    private long version;   // Bumped on every invalidation, results loaded across one are not cached
+
+    // Constructor
+    ResultCache(int maxEntries, long maxBytes, long ttl) {
+        this.windowSize = Math.max(1, maxEntries / 100);
+        this.mainSize = Math.max(1, maxEntries - windowSize);
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        window = new LinkedHashMap<>(16, 0.75f, true);
+        main = new LinkedHashMap<>(16, 0.75f, true);
+        tags = new HashMap<>();
+        sketch = new FrequencySketch(maxEntries);
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+    }
+
+    // Cached result or null, every lookup counts towards the key's frequency
+    synchronized Object get(QueryKey key) {
+        sketch.increment(key.hashCode());
+        var entry = window.get(key);
+        if (entry == null) entry = main.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    // Version to pass to put, taken before the query runs
+    synchronized long version() {
+        return version;
+    }
+
+    // Cache a result unless an invalidation happened since the version was taken
+    synchronized void put(QueryKey key, Object value, long size, long version) {
+        if (version != this.version) return;
+        size += key.size();
+        if (size > maxBytes) return;
+        remove(key);
+
+        // New entries start in the window
+        var entry = new Entry(value, size, ttl == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + ttl, tables(key.sql()));
+        window.put(key, entry);
+        bytes += size;
+        for (var table : entry.tables) tags.computeIfAbsent(table, ignored -> new HashSet<>()).add(key);
+
+        // Entries leaving the window compete with the main victim by frequency
+        while (window.size() > windowSize) {
+            var candidate = window.entrySet().iterator().next();
+            window.remove(candidate.getKey());
+            admit(candidate.getKey(), candidate.getValue());
+        }
+
+        // Enforce the byte bound, main entries go first
+        while (bytes > maxBytes && !main.isEmpty()) evict(main.keySet().iterator().next());
+        while (bytes > maxBytes && window.size() > 1) evict(window.keySet().iterator().next());
+    }
+
+    private void admit(QueryKey key, Entry entry) {
+        var now = System.currentTimeMillis();
+        while (main.size() >= mainSize) {
+            var victim = main.entrySet().iterator().next();
+            if (!victim.getValue().isExpired(now) && sketch.frequency(key.hashCode()) <= sketch.frequency(victim.getKey().hashCode())) {
+
+                // Rejected, the candidate is dropped instead of the victim
+                unlink(key, entry);
+                evictions.increment();
+                return;
+            }
+            evict(victim.getKey());
+        }
+        main.put(key, entry);
+    }
+
+    // Drop all entries reading the table
+    synchronized void invalidate(String table) {
+        version++;
+        var keys = tags.get(normalize(table));
+        if (keys != null) for (var key : new ArrayList<>(keys)) remove(key);
+        keys = tags.get(ANY_TABLE);
+        if (keys != null) for (var key : new ArrayList<>(keys)) remove(key);
+    }
+
+    // Drop the entries a write statement may have changed, everything if its table is unknown
+    void invalidateWrite(String sql) {
+        var table = writeTable(sql);
+        if (table == null) invalidateAll();
+        else invalidate(table);
+    }
+
+    synchronized void invalidateAll() {
+        version++;
+        window.clear();
+        main.clear();
+        tags.clear();
+        bytes = 0;
+    }
+
+    private void evict(QueryKey key) {
+        if (remove(key)) evictions.increment();
+    }
+
+    private boolean remove(QueryKey key) {
+        var entry = window.remove(key);
+        if (entry == null) entry = main.remove(key);
+        if (entry == null) return false;
+        unlink(key, entry);
+        return true;
+    }
+
+    private void unlink(QueryKey key, Entry entry) {
+        bytes -= entry.size;
+        for (var table : entry.tables) {
+            var keys = tags.get(table);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) tags.remove(table);
+        }
+    }
+
+    // Getters
+    CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    // Table written by an INSERT, UPDATE, DELETE, REPLACE, MERGE or TRUNCATE, null if unknown or several
+    static String writeTable(String sql) {
+        if (MULTI_TABLE.matcher(sql).find()) return null;
+        var matcher = WRITE_TABLE.matcher(sql);
+        return matcher.find() ? normalize(matcher.group(1)) : null;
+    }
+
+    // Tables named after FROM and JOIN, including those of subqueries
+    static Set<String> tables(String sql) {
+        var tables = new HashSet<String>();
+        var from = FROM_CLAUSE.matcher(sql);
+        while (from.find()) for (var part : from.group(1).split(",")) {
+            var table = LEADING_TABLE.matcher(part);
+            if (table.find()) tables.add(normalize(table.group(1)));
+        }
+        var join = JOIN_TABLE.matcher(sql);
+        while (join.find()) tables.add(normalize(join.group(1)));
+        if (tables.isEmpty()) tables.add(ANY_TABLE);
+        return Set.copyOf(tables);
+    }
+
+    // Estimated heap size of a result list
+    static long size(List<?> rows) {
+        var size = 16L + 4L * rows.size();
+        for (var row : rows) size += row instanceof Object[] values ? Sizes.of(values) : Sizes.of(row);
+        return size;
+    }
+
+    // Unquoted, lower case name without schema so both sides of the tag match
+    private static String normalize(String identifier) {
+        var name = identifier;
+        var part = IDENTIFIER_PART.matcher(identifier);
+        while (part.find()) name = part.group();
+        if (name.length() > 1 && (name.startsWith("`") || name.startsWith("\"") || name.startsWith("["))) name = name.substring(1, name.length() - 1);
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // Cached Result
+    private record Entry(Object value, long size, long expiresAt, Set<String> tables) {
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    // Count-min sketch of 4-bit counters, halved periodically so old popularity fades
+    private static final class FrequencySketch {
+
+        // Constants
+        private static final long[] SEEDS = {0x97CB3127L, 0xAB3A8D45L, 0xC2B2AE3DL, 0x27D4EB2FL};
+
+        // Attributes
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+
+        // Variables
+        private int additions;
+
+        // Constructor
+        private FrequencySketch(int maxEntries) {
+            var width = Integer.highestOneBit(Math.max(16, maxEntries - 1) << 1);
+            counters = new byte[width * SEEDS.length];
+            mask = width - 1;
+            sampleSize = 10 * Math.max(16, maxEntries);
+        }
+
+        private void increment(int hash) {
+            var added = false;
+            for (var row = 0; row < SEEDS.length; row++) {
+                var index = index(hash, row);
+                if (counters[index] < 15) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        private int frequency(int hash) {
+            var frequency = 15;
+            for (var row = 0; row < SEEDS.length; row++) frequency = Math.min(frequency, counters[index(hash, row)]);
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            var spread = (hash & 0xFFFFFFFFL) * SEEDS[row];
+            return row * (mask + 1) + ((int) (spread ^ (spread >>> 32)) & mask);
+        }
+
+        private void reset() {
+            for (var i = 0; i < counters.length; i++) counters[i] = (byte) (counters[i] >>> 1);
+            additions >>>= 1;
+        }
+    }
+}
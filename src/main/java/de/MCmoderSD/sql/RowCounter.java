@@ -0,0 +1,112 @@
+package de.MCmoderSD.sql;
+
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Row counts per table, exact, served stale while refreshing in the background, or estimated from statistics
+final class RowCounter {
+
+    // Attributes
+    private final Driver.DatabaseType databaseType;
+    private final long refreshInterval;     // ms
+    private final ConcurrentHashMap<String, Count> counts;
+
+    // Constructor
+    RowCounter(Driver.DatabaseType databaseType, long refreshInterval) {
+        this.databaseType = databaseType;
+        this.refreshInterval = refreshInterval;
+        counts = new ConcurrentHashMap<>();
+    }
+
+    // The driver is passed per call, the counter is created while the driver is still being constructed
+    long count(Driver driver, String table, Driver.CountMode mode) throws SQLException {
+        return switch (mode) {
+            case EXACT -> exact(driver, table);
+            case CACHED -> cached(driver, table);
+            case APPROXIMATE -> {
+                var estimate = approximate(driver, table);
+                yield estimate != null ? estimate : cached(driver, table);
+            }
+        };
+    }
+
+    // Full COUNT(*), a scan on PostgreSQL and InnoDB
+    private long exact(Driver driver, String table) throws SQLException {
+        var rows = driver.query("SELECT COUNT(*) FROM " + databaseType.quote(table), resultSet -> resultSet.getLong(1));
+        return rows.isEmpty() ? 0 : rows.getFirst();
+    }
+
+    // Last exact count, refreshed in the background once it is older than the refresh interval
+    private long cached(Driver driver, String table) throws SQLException {
+        var count = counts.get(table);
+        if (count == null) {
+            var value = exact(driver, table);
+            count = counts.putIfAbsent(table, new Count(value));
+            return count != null ? count.value : value;
+        }
+
+        // Stale While Revalidate
+        if (System.currentTimeMillis() - count.loadedAt >= refreshInterval && count.refreshing.compareAndSet(false, true)) {
+            var stale = count;
+            Scheduler.execute(() -> {
+                try {
+                    stale.set(exact(driver, table));
+                } catch (SQLException e) {
+                    System.err.println(e.getMessage());
+                } finally {
+                    stale.refreshing.set(false);
+                }
+            });
+        }
+        return count.value;
+    }
+
+    // Estimate from the planner statistics, null if the table has none yet
+    private Long approximate(Driver driver, String table) throws SQLException {
+        var dot = table.lastIndexOf('.');
+        var schema = dot < 0 ? null : table.substring(0, dot);
+        var name = table.substring(dot + 1);
+        return switch (databaseType) {
+            case POSTGRESQL -> {
+                var rows = driver.query("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", resultSet -> resultSet.getLong(1), databaseType.quote(table));
+                yield rows.isEmpty() || rows.getFirst() < 0 ? null : rows.getFirst();  // -1 until the first VACUUM or ANALYZE
+            }
+            case MARIADB, MYSQL -> {
+                var rows = driver.query("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ?", resultSet -> resultSet.getObject(1) != null ? resultSet.getLong(1) : null, schema, name);
+                yield rows.isEmpty() ? null : rows.getFirst();
+            }
+            case SQLITE -> {
+
+                // sqlite_stat1 only exists after the first ANALYZE, the first number of each row is the table size
+                if (driver.query("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_stat1'", resultSet -> true).isEmpty()) yield null;
+                var rows = driver.query("SELECT stat FROM sqlite_stat1 WHERE tbl = ? ORDER BY idx IS NOT NULL LIMIT 1", resultSet -> resultSet.getString(1), name);
+                if (rows.isEmpty() || rows.getFirst() == null) yield null;
+                var stat = rows.getFirst();
+                var end = stat.indexOf(' ');
+                yield Long.parseLong(end < 0 ? stat : stat.substring(0, end));
+            }
+        };
+    }
+
+    // Cached Count
+    private static final class Count {
+
+        // Attributes
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        // Variables
+        private volatile long value;
+        private volatile long loadedAt;
+
+        // Constructor
+        private Count(long value) {
+            set(value);
+        }
+
+        private void set(long value) {
+            this.value = value;
+            this.loadedAt = System.currentTimeMillis();
+        }
+    }
+}
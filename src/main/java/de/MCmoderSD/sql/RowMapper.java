@@ -0,0 +1,10 @@
+package de.MCmoderSD.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Maps the current row of a ResultSet, must not move the cursor
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+}
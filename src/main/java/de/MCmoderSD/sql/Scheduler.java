@@ -0,0 +1,43 @@
+package de.MCmoderSD.sql;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+// Shared timer for all Drivers, blocking work is handed off to virtual threads
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+final class Scheduler {
+
+    // Constants
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("JSQL-Scheduler").daemon().factory());
+    private static final ExecutorService WORKERS = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("JSQL-Worker-", 0).factory());
+
+    // Constructor
+    private Scheduler() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // Run a task once after the given delay
+    static ScheduledFuture<?> schedule(Runnable task, long delay) {
+        return TIMER.schedule(() -> execute(task), delay, MILLISECONDS);
+    }
+
+    // Run a task repeatedly, the task has to guard against overlapping runs itself
+    static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+        return TIMER.scheduleAtFixedRate(() -> execute(task), period, period, MILLISECONDS);
+    }
+
+    // Run a task on a virtual thread
+    static void execute(Runnable task) {
+        WORKERS.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println(e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package de.MCmoderSD.sql;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Coalesces identical concurrent reads into one execution whose result every caller shares
+final class SingleFlight {
+
+    // Attributes
+    private final ConcurrentHashMap<QueryKey, CompletableFuture<Object>> flights;
+    private final LongAdder executions;
+    private final LongAdder coalesced;
+
+    // Constructor
+    SingleFlight() {
+        flights = new ConcurrentHashMap<>();
+        executions = new LongAdder();
+        coalesced = new LongAdder();
+    }
+
+    // Join the in-flight execution of the key or run the loader as its leader, the result must be immutable
+    @SuppressWarnings("unchecked")
+    <T> T execute(QueryKey key, Loader<T> loader) throws SQLException {
+        var flight = new CompletableFuture<Object>();
+        var existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) Driver.await(existing);
+        }
+
+        // Leader
+        executions.increment();
+        try {
+            var result = loader.load();
+            flight.complete(result);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    // Detach in-flight executions after a write, later callers start a fresh one and see the write
+    void forget() {
+        flights.clear();
+    }
+
+    // Getters
+    CoalescingStats getStats() {
+        return new CoalescingStats(executions.sum(), coalesced.sum());
+    }
+
+    // Query Loader Interface
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws SQLException;
+    }
+}
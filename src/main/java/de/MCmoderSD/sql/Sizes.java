@@ -0,0 +1,28 @@
+package de.MCmoderSD.sql;
+
+// Rough heap size estimates used to bound buffers and caches
+final class Sizes {
+
+    // Constructor
+    private Sizes() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static long of(Object value) {
+        return switch (value) {
+            case null -> 8;
+            case CharSequence text -> 40 + 2L * text.length();
+            case byte[] bytes -> 16 + bytes.length;
+            case Object[] values -> of(values);
+            case Number ignored -> 16;
+            case Boolean ignored -> 16;
+            default -> 32;
+        };
+    }
+
+    static long of(Object[] values) {
+        var size = 16L + 4L * values.length;
+        for (var value : values) size += of(value);
+        return size;
+    }
+}
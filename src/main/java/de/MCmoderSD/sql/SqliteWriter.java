@@ -0,0 +1,210 @@
+package de.MCmoderSD.sql;
+
+import de.MCmoderSD.sql.ConnectionPool.Lease;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+// Funnels all SQLite writes through one dedicated thread and the single writer connection
+final class SqliteWriter {
+
+    // Constants
+    private static final int MAX_DRAIN = 256;       // Tasks per lease before other writers get a turn
+    private static final long POLL_TIMEOUT = 100;   // ms
+
+    // Attributes
+    private final Driver driver;
+    private final long groupWindow;     // ns to wait for more writes, 0 = group commit disabled
+    private final int groupSize;        // Max writes per shared transaction
+    private final LinkedBlockingQueue<Pending<?>> queue;
+    private final Thread thread;
+
+    // Variables
+    private volatile boolean running;
+    private Lease current;  // Lease of the task running on the writer thread
+
+    // Constructor
+    SqliteWriter(Driver driver, long groupWindow, int groupSize) {
+        this.driver = driver;
+        this.groupWindow = MILLISECONDS.toNanos(groupWindow);
+        this.groupSize = groupSize;
+        queue = new LinkedBlockingQueue<>();
+        running = true;
+        thread = Thread.ofPlatform().name("JSQL-SQLite-Writer").daemon().start(this::run);
+    }
+
+    // Queue a task, the future completes once the writer thread ran it
+    <T> CompletableFuture<T> submit(Task<T> task) {
+        var future = new CompletableFuture<T>();
+
+        // Writes issued by a running task would wait on their own queue, they join the task instead
+        if (Thread.currentThread() == thread && current != null) {
+            new Pending<>(task, future).run(current);
+            return future;
+        }
+
+        // Checked under the lock so close() cannot slip between the check and the add
+        synchronized (queue) {
+            if (!running) future.completeExceptionally(new SQLException("SQLite writer is closed", "08003"));
+            else queue.add(new Pending<>(task, future));
+        }
+        return future;
+    }
+
+    // Writer Loop
+    private void run() {
+        while (running || !queue.isEmpty()) {
+
+            // Wait for work
+            Pending<?> first;
+            try {
+                first = queue.poll(POLL_TIMEOUT, MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) continue;
+
+            // Group Commit
+            if (groupSize > 1) {
+                var group = collect(first);
+                try (var lease = driver.acquire()) {
+                    current = lease;
+                    commit(group, lease);
+                } catch (SQLException e) {
+                    for (var pending : group) pending.future.completeExceptionally(e);
+                } finally {
+                    current = null;
+                }
+                continue;
+            }
+
+            // Run queued tasks on one lease
+            try (var lease = driver.acquire()) {
+                current = lease;
+                var pending = first;
+                for (var drained = 0; pending != null; pending = ++drained < MAX_DRAIN ? queue.poll() : null) pending.run(lease);
+            } catch (SQLException e) {
+                first.future.completeExceptionally(e);
+            } finally {
+                current = null;
+            }
+        }
+
+        // Fail whatever could not be written
+        Pending<?> pending;
+        while ((pending = queue.poll()) != null) pending.future.completeExceptionally(new SQLException("SQLite writer is closed", "08003"));
+    }
+
+    // Collect writes arriving within the window, up to the group size
+    private ArrayList<Pending<?>> collect(Pending<?> first) {
+        var group = new ArrayList<Pending<?>>(groupSize);
+        group.add(first);
+        queue.drainTo(group, groupSize - 1);
+        var deadline = System.nanoTime() + groupWindow;
+        while (group.size() < groupSize) {
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            try {
+                var next = queue.poll(remaining, NANOSECONDS);
+                if (next == null) break;
+                group.add(next);
+                queue.drainTo(group, groupSize - group.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return group;
+    }
+
+    // Run a group in one transaction, each write behind its own savepoint so a failure only undoes that write
+    private static void commit(ArrayList<Pending<?>> group, Lease lease) {
+        var results = new Object[group.size()];
+        var errors = new Throwable[group.size()];
+        var connection = lease.connection();
+        try {
+            connection.setAutoCommit(false);
+            lease.setJoined(true);
+            try {
+                for (var i = 0; i < group.size(); i++) {
+                    var pending = group.get(i);
+                    if (pending.future.isDone()) continue;     // Cancelled while queued
+                    var savepoint = connection.setSavepoint();
+                    try {
+                        results[i] = pending.task.run(lease);
+                        connection.releaseSavepoint(savepoint);
+                    } catch (SQLException | RuntimeException e) {
+                        errors[i] = e;
+                        connection.rollback(savepoint);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                lease.setJoined(false);
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+
+            // Nothing was committed
+            lease.invalidate();
+            for (var pending : group) pending.future.completeExceptionally(e);
+            return;
+        }
+
+        // Results are only handed out once they are durable
+        for (var i = 0; i < group.size(); i++) {
+            if (errors[i] != null) group.get(i).future.completeExceptionally(errors[i]);
+            else group.get(i).complete(results[i]);
+        }
+    }
+
+    // Finish queued writes and stop the writer thread
+    void close(long timeout) {
+        synchronized (queue) {
+            running = false;
+        }
+        try {
+            thread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Getters
+    boolean isRunning() {
+        return running;
+    }
+
+    // Writer Task Interface
+    @FunctionalInterface
+    interface Task<T> {
+        T run(Lease lease) throws SQLException;
+    }
+
+    // Queued Task
+    private record Pending<T>(Task<T> task, CompletableFuture<T> future) {
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            future.complete((T) result);
+        }
+
+        private void run(Lease lease) {
+            if (future.isDone()) return;    // Cancelled while queued
+            try {
+                future.complete(task.run(lease));
+            } catch (SQLException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.MCmoderSD.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// LRU cache of prepared statements for a single connection, only used by the thread holding the lease
+final class StatementCache {
+
+    // Constants
+    private static final int STATEMENT_OVERHEAD = 1024;     // Estimated bytes per statement besides the SQL text
+
+    // Attributes
+    private final int maxStatements;
+    private final long maxBytes;
+    private final Counters counters;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    // Variables
+    private long bytes;
+
+    // Constructor
+    StatementCache(int maxStatements, long maxBytes, Counters counters) {
+        this.maxStatements = maxStatements;
+        this.maxBytes = maxBytes;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Return the cached statement for the SQL or prepare and cache a new one
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+
+        // Cache Hit
+        var statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            counters.hits.increment();
+            statement.clearParameters();
+            return statement;
+        }
+
+        // Drop statements closed by the caller
+        if (statement != null) remove(sql);
+
+        // Cache Miss
+        counters.misses.increment();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        bytes += estimate(sql);
+        evict();
+        return statement;
+    }
+
+    // Evict least recently used statements, the newest one always stays
+    private void evict() {
+        var iterator = statements.entrySet().iterator();
+        while (statements.size() > 1 && (statements.size() > maxStatements || bytes > maxBytes)) {
+            var eldest = iterator.next();
+            iterator.remove();
+            bytes -= estimate(eldest.getKey());
+            counters.evictions.increment();
+            close(eldest.getValue());
+        }
+    }
+
+    private void remove(String sql) {
+        var statement = statements.remove(sql);
+        if (statement == null) return;
+        bytes -= estimate(sql);
+        close(statement);
+    }
+
+    // Close all cached statements
+    void clear() {
+        statements.values().forEach(StatementCache::close);
+        statements.clear();
+        bytes = 0;
+    }
+
+    private static long estimate(String sql) {
+        return STATEMENT_OVERHEAD + 2L * sql.length();
+    }
+
+    private static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // Counters shared by all caches of a Driver
+    static final class Counters {
+
+        // Attributes
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        CacheStats snapshot() {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package de.MCmoderSD.sql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static de.MCmoderSD.sql.Driver.DatabaseType.*;
+
+// Bulk insert-or-update with multi-row VALUES, ON CONFLICT on PostgreSQL and SQLite, ON DUPLICATE KEY on MySQL and MariaDB
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class Upsert {
+
+    // Constants
+    private static final int MAX_ROWS = 1000;   // Rows per statement, the parameter limit may lower it
+    private final Driver driver;
+    private final Driver.DatabaseType databaseType;
+    private final String table;
+    private final List<String> columns;
+    private final int[] conflictIndexes;
+    private final String prefix;    // INSERT INTO ... VALUES
+    private final String suffix;    // Conflict clause
+    private final int chunkSize;
+    private final String chunkSql;
+    private final String[] pieceSql;    // Statements for 2^i rows, built on first use
+
+    // Constructor
+    Upsert(Driver driver, Driver.DatabaseType databaseType, String table, List<String> columns, List<String> conflictColumns, List<String> updateColumns, Set<String> counterColumns) {
+
+        // Check Parameters
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (columns == null || columns.isEmpty()) throw new IllegalArgumentException("Columns cannot be null or empty");
+        if (conflictColumns == null || conflictColumns.isEmpty() || !columns.containsAll(conflictColumns)) throw new IllegalArgumentException("Conflict columns must be non-empty and part of the columns");
+        if (updateColumns == null || !columns.containsAll(updateColumns)) throw new IllegalArgumentException("Update columns must be part of the columns");
+        if (!updateColumns.containsAll(counterColumns)) throw new IllegalArgumentException("Counter columns must be update columns");
+
+        // Set Constants
+        this.driver = driver;
+        this.databaseType = databaseType;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.conflictIndexes = conflictColumns.stream().mapToInt(columns::indexOf).toArray();
+
+        // INSERT INTO table (a, b) VALUES
+        var prefix = new StringBuilder("INSERT INTO ").append(databaseType.quote(table)).append(" (");
+        for (var i = 0; i < columns.size(); i++) prefix.append(i == 0 ? "" : ", ").append(databaseType.quote(columns.get(i)));
+        this.prefix = prefix.append(") VALUES ").toString();
+        this.suffix = conflictClause(conflictColumns, updateColumns, counterColumns);
+
+        // Rows per statement within the dialect's bind-parameter limit
+        this.chunkSize = Math.max(1, Math.min(MAX_ROWS, databaseType.getMaxParameters() / columns.size()));
+        this.chunkSql = statement(chunkSize);
+        this.pieceSql = new String[32 - Integer.numberOfLeadingZeros(chunkSize)];
+    }
+
+    // Counter columns add the new value to the stored one instead of replacing it
+    private String conflictClause(List<String> conflictColumns, List<String> updateColumns, Set<String> counterColumns) {
+        var mysql = databaseType == MARIADB || databaseType == MYSQL;
+        var clause = new StringBuilder();
+        if (mysql) clause.append(" ON DUPLICATE KEY UPDATE ");
+        else {
+            clause.append(" ON CONFLICT (");
+            for (var i = 0; i < conflictColumns.size(); i++) clause.append(i == 0 ? "" : ", ").append(databaseType.quote(conflictColumns.get(i)));
+            clause.append(updateColumns.isEmpty() ? ") DO NOTHING" : ") DO UPDATE SET ");
+        }
+
+        // Keep existing rows, MySQL has no DO NOTHING without also ignoring unrelated errors
+        if (updateColumns.isEmpty()) {
+            if (mysql) {
+                var column = databaseType.quote(conflictColumns.getFirst());
+                clause.append(column).append(" = ").append(column);
+            }
+            return clause.toString();
+        }
+
+        var target = databaseType.quote(table.substring(table.lastIndexOf('.') + 1));
+        for (var i = 0; i < updateColumns.size(); i++) {
+            var column = databaseType.quote(updateColumns.get(i));
+            clause.append(i == 0 ? "" : ", ").append(column).append(" = ");
+            if (counterColumns.contains(updateColumns.get(i))) clause.append(mysql ? column : target + "." + column).append(" + ");
+            clause.append(mysql ? "VALUES(" + column + ")" : "excluded." + column);
+        }
+        return clause.toString();
+    }
+
+    private String statement(int rows) {
+        var row = "(" + "?, ".repeat(columns.size() - 1) + "?)";
+        return prefix + (row + ", ").repeat(rows - 1) + row + suffix;
+    }
+
+    // Upsert the rows atomically, full chunks run as one batch and the remainder as power-of-two sized statements
+    public int execute(List<Object[]> rows) throws SQLException {
+        if (rows == null) throw new IllegalArgumentException("Rows cannot be null");
+
+        // A statement must not touch the same key twice, PostgreSQL rejects it, the last row per key wins
+        var unique = new LinkedHashMap<List<Object>, Object[]>();
+        for (var row : rows) {
+            if (row.length != columns.size()) throw new IllegalArgumentException("Row has " + row.length + " values but " + columns.size() + " columns were given");
+            var key = new Object[conflictIndexes.length];
+            for (var i = 0; i < key.length; i++) key[i] = row[conflictIndexes[i]];
+            unique.remove(Arrays.asList(key));
+            unique.put(Arrays.asList(key), row);
+        }
+        if (unique.isEmpty()) return 0;
+
+        // Flatten rows into statement parameters
+        var values = new ArrayList<>(unique.values());
+        var full = values.size() / chunkSize;
+        var chunks = new ArrayList<Object[]>(full);
+        for (var chunk = 0; chunk < full; chunk++) chunks.add(parameters(values.subList(chunk * chunkSize, (chunk + 1) * chunkSize)));
+
+        // A single batch or statement commits on its own, anything more shares one transaction so a failure leaves no partial upsert
+        var remainder = values.size() - full * chunkSize;
+        if (remainder == 0 || (full == 0 && Integer.bitCount(remainder) == 1)) return write(values, chunks);
+        return driver.inTransaction(connection -> write(values, chunks));
+    }
+
+    // Full chunks as one batch, the remainder as power-of-two sized statements
+    private int write(List<Object[]> values, List<Object[]> chunks) throws SQLException {
+        var affected = 0;
+        if (!chunks.isEmpty()) for (var count : driver.batch(chunkSql, chunks)) affected += Math.max(count, 0);
+
+        // Only log2(chunkSize) remainder shapes reach the statement cache and the metrics
+        for (var offset = chunks.size() * chunkSize; offset < values.size(); ) {
+            var size = Integer.highestOneBit(values.size() - offset);
+            affected += driver.update(pieceSql(size), parameters(values.subList(offset, offset + size)));
+            offset += size;
+        }
+        return affected;
+    }
+
+    private String pieceSql(int rows) {
+        var index = Integer.numberOfTrailingZeros(rows);
+        var sql = pieceSql[index];
+        if (sql == null) pieceSql[index] = sql = statement(rows);
+        return sql;
+    }
+
+    private Object[] parameters(List<Object[]> rows) {
+        var parameters = new Object[rows.size() * columns.size()];
+        for (var i = 0; i < rows.size(); i++) System.arraycopy(rows.get(i), 0, parameters, i * columns.size(), columns.size());
+        return parameters;
+    }
+
+    // Getters
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -0,0 +1,10 @@
+package de.MCmoderSD.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Unit of work against a leased connection, must not close the connection
+@FunctionalInterface
+public interface Work<T> {
+    T execute(Connection connection) throws SQLException;
+}
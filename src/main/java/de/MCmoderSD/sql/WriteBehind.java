@@ -0,0 +1,182 @@
+package de.MCmoderSD.sql;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps the latest pending row per key, summing counter columns, and flushes them as bulk upserts
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public final class WriteBehind implements Buffered {
+
+    // Constants
+    private static final int MAX_FLUSHES = 4;   // Flushes worth of keys kept while flushes fail before put() rejects new keys
+    private final Driver driver;
+    private final Upsert upsert;
+    private final int keyCount;
+    private final boolean[] counters;   // Columns whose values are deltas
+    private final int maxPending;
+
+    // Attributes
+    private final ConcurrentHashMap<List<Object>, Object[]> pending;
+    private final ReentrantLock flushLock;      // Keeps flushes in order
+    private final ScheduledFuture<?> timer;
+    private final LongAdder writes;
+    private final LongAdder rows;
+    private final LongAdder flushes;
+    private final LongAdder failures;
+    private final LongAdder dropped;
+
+    // Variables
+    private volatile boolean closed;
+
+    // Constructor
+    WriteBehind(Driver driver, Driver.DatabaseType databaseType, String table, List<String> keyColumns, List<String> valueColumns, Set<String> counterColumns, int maxPending, long flushInterval) {
+
+        // Check Parameters
+        if (table == null || table.isBlank()) throw new IllegalArgumentException("Table cannot be null or blank");
+        if (keyColumns == null || keyColumns.isEmpty()) throw new IllegalArgumentException("Key columns cannot be null or empty");
+        if (valueColumns == null || valueColumns.isEmpty()) throw new IllegalArgumentException("Value columns cannot be null or empty");
+        if (counterColumns == null || !valueColumns.containsAll(counterColumns)) throw new IllegalArgumentException("Counter columns must be value columns");
+        if (maxPending < 1) throw new IllegalArgumentException("Max pending rows must be positive");
+        if (flushInterval < 0) throw new IllegalArgumentException("Flush interval cannot be negative");
+
+        // Set Constants
+        this.driver = driver;
+        var columns = new ArrayList<>(keyColumns);
+        columns.addAll(valueColumns);
+        this.upsert = new Upsert(driver, databaseType, table, columns, keyColumns, valueColumns, counterColumns);
+        this.keyCount = keyColumns.size();
+        this.counters = new boolean[keyColumns.size() + valueColumns.size()];
+        for (var i = 0; i < valueColumns.size(); i++) counters[keyCount + i] = counterColumns.contains(valueColumns.get(i));
+        this.maxPending = maxPending;
+
+        // Set Attributes
+        pending = new ConcurrentHashMap<>();
+        flushLock = new ReentrantLock();
+        writes = new LongAdder();
+        rows = new LongAdder();
+        flushes = new LongAdder();
+        failures = new LongAdder();
+        dropped = new LongAdder();
+
+        // Flush on a timer
+        timer = flushInterval > 0 ? Scheduler.scheduleAtFixedRate(this::flushQuietly, flushInterval) : null;
+    }
+
+    // Queue a row of key columns followed by value columns, it replaces a pending row with the same key
+    public void put(Object... row) throws SQLException {
+        if (closed) throw new IllegalStateException("Write-behind buffer is closed");
+        if (row == null || row.length != counters.length) throw new IllegalArgumentException("Row must have " + counters.length + " values");
+        var key = key(row);
+        if (pending.size() >= MAX_FLUSHES * maxPending && !pending.containsKey(key)) throw new SQLTransientException("Write-behind buffer is full, " + pending.size() + " rows are waiting for a successful flush");
+        pending.merge(key, row.clone(), this::merge);
+        writes.increment();
+        if (pending.size() >= maxPending) flush();
+    }
+
+    // Write all pending rows, a flush failing on a connection or retryable error puts them back so the next one retries, any other failed flush drops them
+    public void flush() throws SQLException {
+        flushLock.lock();
+        try {
+
+            // Take rows one by one, writes racing the flush land in the next one
+            var batch = new ArrayList<Object[]>();
+            for (var key : pending.keySet()) {
+                var row = pending.remove(key);
+                if (row != null) batch.add(row);
+            }
+            if (batch.isEmpty()) return;
+
+            // One transaction, so a failed flush committed nothing and its counter deltas can be put back as they are
+            try {
+                driver.inTransaction(connection -> upsert.execute(batch));
+            } catch (SQLException | RuntimeException e) {
+                failures.increment();
+
+                // A row the database rejects would fail every later flush too
+                if (!(e instanceof SQLException sqlException) || !driver.isTransient(sqlException)) {
+                    dropped.add(batch.size());
+                    throw e;
+                }
+                for (var row : batch) pending.merge(key(row), row, (newer, older) -> merge(older, newer));
+                throw e;
+            }
+            rows.add(batch.size());
+            flushes.increment();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private List<Object> key(Object[] row) {
+        return Arrays.asList(Arrays.copyOf(row, keyCount));
+    }
+
+    // Newer values win, counter deltas add up
+    private Object[] merge(Object[] older, Object[] newer) {
+        var merged = newer.clone();
+        for (var i = keyCount; i < merged.length; i++) if (counters[i]) merged[i] = add(older[i], newer[i]);
+        return merged;
+    }
+
+    private static Object add(Object a, Object b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (isIntegral(a) && isIntegral(b)) return ((Number) a).longValue() + ((Number) b).longValue();
+        if (a instanceof BigDecimal || b instanceof BigDecimal) return new BigDecimal(a.toString()).add(new BigDecimal(b.toString()));
+        return ((Number) a).doubleValue() + ((Number) b).doubleValue();
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    // Flush the pending rows and stop the timer, after a failed flush the rows stay pending and close() can be called again
+    @Override
+    public void close() throws SQLException {
+        if (!closed) {
+            closed = true;
+            if (timer != null) timer.cancel(false);
+        }
+        flush();
+        driver.unregister(this);
+    }
+
+    // Getters
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public Stats getStats() {
+        return new Stats(writes.sum(), rows.sum(), flushes.sum(), failures.sum(), dropped.sum());
+    }
+
+    // Coalescing Counters
+    public record Stats(long writes, long rows, long flushes, long failures, long dropped) {
+
+        // Writes folded into each flushed row
+        public double writesPerRow() {
+            return rows == 0 ? 0 : (double) writes / rows;
+        }
+    }
+}
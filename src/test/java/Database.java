@@ -1,3 +1,4 @@
+import de.MCmoderSD.sql.ConnectionPool.Lease;
 import de.MCmoderSD.sql.Driver.Builder;
 import de.MCmoderSD.sql.Driver;
 
@@ -16,11 +17,13 @@ void main() {
             .withPort(3306)                 // Port
             .withDatabase("database")       // Database
             .withUsername("username")       // Username
-            .withPassword("password");      // Password
+            .withPassword("password")       // Password
+            .withPoolSize(2, 10)            // Connection Pool (2 to 10 Connections)
+            .withAcquireTimeout(5000);      // Wait up to 5s for a free Connection
 
     // Initialize Database Connection
     Database database = new Database(builder);
-    database.setAutoReconnectSettings(5, 10000);    // Auto Reconnect Settings (5 Attempts, 10s Delay)
+    database.setAutoReconnectSettings(5, 10000);    // Auto Reconnect Settings (5 Attempts, 10s Base Delay)
     database.setAutoReconnect(true);                // Enable Auto Reconnect
     database.connect();                             // Connect to Database
 
@@ -43,14 +46,18 @@ private static class Database extends Driver {
         // Initialize SQL Query
         String query = "SELECT COUNT(*) FROM `table`";
 
-        // Initialize Statement
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        // Lease Connection
+        try (Lease lease = acquire()) {
+
+            // Prepare Statement (cached per Connection, do not close)
+            PreparedStatement statement = lease.prepare(query);
 
             // Execute Query
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
 
-            // Return Result
-            if (resultSet.next()) return resultSet.getInt(1);
+                // Return Result
+                if (resultSet.next()) return resultSet.getInt(1);
+            }
 
         } catch (SQLException e) {
             System.err.println(e.getMessage());
@@ -1,3 +1,4 @@
+import de.MCmoderSD.sql.ConnectionPool.Lease;
 import de.MCmoderSD.sql.Driver.Builder;
 import de.MCmoderSD.sql.Driver;
 
@@ -6,13 +7,15 @@ import java.sql.SQLException;
 import java.sql.ResultSet;
 
 import static de.MCmoderSD.sql.Driver.DatabaseType.SQLITE;
+import static de.MCmoderSD.sql.Driver.SqliteProfile.THROUGHPUT;
 
 void main() {
 
     // Build SQLite Configuration
     Builder builder = SQLite.builder()
             .withType(SQLITE)               // Database Type
-            .withDatabase("Database.db");   // Database File
+            .withDatabase("Database.db")    // Database File
+            .withSqliteProfile(THROUGHPUT); // WAL, Memory Mapping and larger Page Cache
 
     // Initialize Database Connection
     SQLite database = new SQLite(builder);
@@ -37,14 +40,18 @@ private static class SQLite extends Driver {
         // Initialize SQL Query
         String query = "SELECT COUNT(*) FROM `table`";
 
-        // Initialize Statement
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        // Lease Connection
+        try (Lease lease = acquire()) {
+
+            // Prepare Statement (cached per Connection, do not close)
+            PreparedStatement statement = lease.prepare(query);
 
             // Execute Query
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
 
-            // Return Result
-            if (resultSet.next()) return resultSet.getInt(1);
+                // Return Result
+                if (resultSet.next()) return resultSet.getInt(1);
+            }
 
         } catch (SQLException e) {
             System.err.println(e.getMessage());
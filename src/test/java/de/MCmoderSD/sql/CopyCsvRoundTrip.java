@@ -0,0 +1,44 @@
+package de.MCmoderSD.sql;
+
+import java.util.Arrays;
+
+// Round trip through the CSV encoding used by PgCopy, needs neither a database nor the PostgreSQL driver
+public final class CopyCsvRoundTrip {
+
+    void main() {
+
+        // NULL and Empty String
+        check(new Object[] {null, ""}, null, "");
+        check(new Object[] {"", null}, "", null);
+        check(new Object[] {null}, (String) null);
+        check(new Object[] {""}, "");
+
+        // Embedded Quotes, Commas and Newlines
+        check(new Object[] {"say \"hi\""}, "say \"hi\"");
+        check(new Object[] {"\""}, "\"");
+        check(new Object[] {"a,b", "c"}, "a,b", "c");
+        check(new Object[] {"line 1\nline 2", "\r\n"}, "line 1\nline 2", "\r\n");
+        check(new Object[] {"\",\n\""}, "\",\n\"");
+
+        // Numbers, Booleans and Unicode
+        check(new Object[] {42, -1L, 1.5, true}, "42", "-1", "1.5", "true");
+        check(new Object[] {"Grüße ✓"}, "Grüße ✓");
+
+        // Binary Data as bytea Hex
+        check(new Object[] {new byte[] {0x00, 0x0F, (byte) 0xFF, 0x10}}, "\\x000fff10");
+        check(new Object[] {new byte[0]}, "\\x");
+
+        // Mixed Row
+        check(new Object[] {1, null, "", "a,\"b\"\nc", new byte[] {(byte) 0xAB}, false}, "1", null, "", "a,\"b\"\nc", "\\xab", "false");
+
+        IO.println("COPY CSV round trip passed");
+    }
+
+    // Encode a row, decode the line and compare with the expected fields
+    private static void check(Object[] row, String... expected) {
+        var line = new StringBuilder();
+        CopyCsv.encode(row, line);
+        var decoded = CopyCsv.decode(line.toString());
+        if (!Arrays.equals(decoded, expected)) throw new AssertionError("Expected " + Arrays.toString(expected) + " but decoded " + Arrays.toString(decoded) + " from " + line);
+    }
+}